@@ -0,0 +1,78 @@
+package com.matkon.gamelog.benchmarks;
+
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.WishlistGameForTableDTO;
+import com.matkon.gamelog.data.WishlistGameRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mapping one dashboard page; a tenth of the games are TBA, the rest spread around today
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardMappingBenchmark
+{
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private List<Game> games;
+    private List<WishlistGameRow> rows;
+    private LocalDate today;
+
+    @Setup
+    public void createPage()
+    {
+        today = LocalDate.now();
+        games = new ArrayList<>(pageSize);
+        rows = new ArrayList<>(pageSize);
+
+        for (int i = 0; i < pageSize; i++) {
+            LocalDate releaseDate = i % 10 == 0 ? null : today.plusDays(i % 730 - 365);
+
+            Game game = new Game();
+            game.setId((long) i);
+            game.setTitle("Game " + i);
+            game.setReleaseDate(releaseDate);
+            games.add(game);
+
+            rows.add(new WishlistGameRow((long) i, "Game " + i, releaseDate));
+        }
+    }
+
+    @Benchmark
+    public List<WishlistGameForTableDTO> fromEntity()
+    {
+        List<WishlistGameForTableDTO> page = new ArrayList<>(games.size());
+        for (Game game : games) {
+            page.add(WishlistGameForTableDTO.fromEntity(game, today));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<WishlistGameForTableDTO> fromRow()
+    {
+        List<WishlistGameForTableDTO> page = new ArrayList<>(rows.size());
+        for (WishlistGameRow row : rows) {
+            page.add(WishlistGameForTableDTO.fromRow(row, today));
+        }
+        return page;
+    }
+}
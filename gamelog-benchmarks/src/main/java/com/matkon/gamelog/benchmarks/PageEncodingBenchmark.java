@@ -0,0 +1,95 @@
+package com.matkon.gamelog.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.matkon.gamelog.data.GameListItem;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.PageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding one library page as JSON, Smile (with shared string values, as MessageConverterConfig
+ * sets it up) and CBOR. The encoded sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageEncodingBenchmark
+{
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final String[] PLATFORMS = {"PC", "PS5", "Xbox Series X", "Switch"};
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"8", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private PageResponse<GameListItem> page;
+    private byte[] encoded;
+
+    @Setup
+    public void createPage() throws IOException
+    {
+        mapper = switch (format) {
+            case "smile" -> new ObjectMapper(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build());
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            default -> new ObjectMapper();
+        };
+        mapper.registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<GameListItem> items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            GameStatus status = STATUSES[i % STATUSES.length];
+            items.add(new GameListItem((long) i, "Game title number " + i, status,
+                    status == GameStatus.COMPLETED ? 8.5 : null, i % 3 == 0 ? "Some notes about game " + i : null,
+                    PLATFORMS[i % PLATFORMS.length], i % 7 == 0,
+                    status == GameStatus.COMPLETED ? LocalDate.of(2024, 6, 1) : null,
+                    LocalDate.of(2015, 1, 1).plusDays(i), "https://media.rawg.io/media/games/" + i + ".jpg",
+                    now.minusMinutes(i)));
+        }
+        page = new PageResponse<>(items, 0, pageSize, 10_000, 10_000 / pageSize);
+        encoded = mapper.writeValueAsBytes(page);
+
+        System.out.println(format + ", " + pageSize + " games: " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException
+    {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public JsonNode decode() throws IOException
+    {
+        return mapper.readTree(encoded);
+    }
+}
@@ -0,0 +1,116 @@
+package com.matkon.gamelog.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.services.RawgGameParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Recorded RAWG payloads (src/main/resources/payloads), streaming parser vs. the JsonNode mapping it replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RawgParsingBenchmark
+{
+    private final RawgGameParser parser = new RawgGameParser();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] searchResponse;
+    private byte[] gameDetail;
+
+    @Setup
+    public void loadPayloads() throws IOException
+    {
+        searchResponse = payload("search-response.json");
+        gameDetail = payload("game-detail.json");
+    }
+
+    @Benchmark
+    public List<Game> searchStreaming() throws IOException
+    {
+        return parser.parseGames(new ByteArrayInputStream(searchResponse));
+    }
+
+    @Benchmark
+    public List<Game> searchTree() throws IOException
+    {
+        List<Game> games = new ArrayList<>();
+        JsonNode results = objectMapper.readTree(searchResponse).get("results");
+        if (results != null) {
+            for (JsonNode gameNode : results) {
+                games.add(treeGame(gameNode));
+            }
+        }
+        return games;
+    }
+
+    @Benchmark
+    public Game detailStreaming() throws IOException
+    {
+        return parser.parseGame(new ByteArrayInputStream(gameDetail));
+    }
+
+    @Benchmark
+    public Game detailTree() throws IOException
+    {
+        return treeGame(objectMapper.readTree(gameDetail));
+    }
+
+    private static byte[] payload(String name) throws IOException
+    {
+        try (InputStream in = RawgParsingBenchmark.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing payload: " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    private static Game treeGame(JsonNode gameNode)
+    {
+        Game game = new Game();
+
+        if (gameNode.has("id")) {
+            game.setRawgId(gameNode.get("id").asLong());
+        }
+
+        if (gameNode.has("name")) {
+            game.setTitle(gameNode.get("name").asText());
+        }
+
+        if (gameNode.has("released") && !gameNode.get("released").isNull()) {
+            try {
+                game.setReleaseDate(LocalDate.parse(gameNode.get("released").asText(), DateTimeFormatter.ISO_LOCAL_DATE));
+            } catch (Exception e) {
+                // left null
+            }
+        }
+
+        if (gameNode.has("background_image") && !gameNode.get("background_image").isNull()) {
+            game.setImageUrl(gameNode.get("background_image").asText());
+        }
+
+        return game;
+    }
+}
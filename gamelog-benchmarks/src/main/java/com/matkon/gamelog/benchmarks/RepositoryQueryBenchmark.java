@@ -0,0 +1,268 @@
+package com.matkon.gamelog.benchmarks;
+
+import com.matkon.gamelog.GameLogAppApplication;
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameListItem;
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.GameTitleRow;
+import com.matkon.gamelog.data.LibraryStatsRow;
+import com.matkon.gamelog.data.WishlistGameRow;
+import com.matkon.gamelog.repos.GameRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every GameRepository query against an in-memory H2 database with the real Flyway schema.
+ * The application context is started once per table size; rows are spread evenly over the statuses,
+ * a tenth of them without release date. Parameters are picked at random per call so the measurement
+ * doesn't hinge on one hot row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryQueryBenchmark
+{
+    private static final int SEED_BATCH = 10_000;
+    private static final int PAGE_SIZE = 8;
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final LocalDate FIRST_RELEASE = LocalDate.of(2000, 1, 1);
+    private static final LocalDateTime FIRST_UPDATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDate MIN_RELEASE_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_RELEASE_DATE = LocalDate.of(9999, 12, 31);
+    private static final Set<GameStatus> LIBRARY_STATUSES = EnumSet.complementOf(EnumSet.of(GameStatus.WISHLIST));
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private GameRepository gameRepository;
+    private LocalDate midRelease;
+
+    @Setup(Level.Trial)
+    public void startAndSeed()
+    {
+        context = new SpringApplicationBuilder(GameLogAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench" + size,
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--rawg.api.url=http://localhost:0",
+                        "--rawg.api.key=benchmark"
+                );
+        gameRepository = context.getBean(GameRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        midRelease = FIRST_RELEASE.plusDays(Math.min(size, 10_000) / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop()
+    {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate)
+    {
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= size; i++) {
+            rows.add(new Object[]{
+                    (long) i,
+                    "Game " + i,
+                    STATUSES[i % STATUSES.length].name(),
+                    i % 10 == 0 ? null : Date.valueOf(FIRST_RELEASE.plusDays(i % 10_000)),
+                    Timestamp.valueOf(FIRST_UPDATE.plusMinutes(i))
+            });
+            if (rows.size() == SEED_BATCH || i == size) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO games (rawg_id, title, status, release_date, favourite, created_at, updated_at) " +
+                                "VALUES (?, ?, ?, ?, FALSE, CURRENT_TIMESTAMP, ?)",
+                        rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private long randomKey()
+    {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+    private LocalDateTime randomUpdatedAt()
+    {
+        return FIRST_UPDATE.plusMinutes(randomKey());
+    }
+
+    private int randomPage()
+    {
+        return ThreadLocalRandom.current().nextInt(size / STATUSES.length / PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Optional<Game> findByRawgId()
+    {
+        return gameRepository.findByRawgId(randomKey());
+    }
+
+    @Benchmark
+    public Optional<Game> findById()
+    {
+        return gameRepository.findById(randomKey());
+    }
+
+    // rawg_id already present: the MERGE only probes the unique index
+    @Benchmark
+    public int insertIfAbsentExisting()
+    {
+        return gameRepository.insertIfAbsent(randomKey(), "Game", null, null, GameStatus.BACKLOG.name(), LocalDateTime.now());
+    }
+
+    @Benchmark
+    public List<Long> findExistingRawgIds()
+    {
+        List<Long> rawgIds = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            rawgIds.add(randomKey());
+        }
+        return gameRepository.findExistingRawgIds(rawgIds);
+    }
+
+    @Benchmark
+    public List<GameTitleRow> findTitleRowsAfter()
+    {
+        return gameRepository.findTitleRowsAfter(randomKey(), PageRequest.ofSize(1000));
+    }
+
+    @Benchmark
+    public List<GameSnapshot> findSnapshotsByRawgIds()
+    {
+        return gameRepository.findSnapshotsByRawgIds(List.of(randomKey(), randomKey(), randomKey(), randomKey()));
+    }
+
+    @Benchmark
+    public List<LibraryStatsRow> loadLibraryStats()
+    {
+        return gameRepository.loadLibraryStats();
+    }
+
+    @Benchmark
+    public List<GameListItem> findListItemsByIds()
+    {
+        List<Long> ids = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ids.add(randomKey());
+        }
+        return gameRepository.findListItemsByIds(ids);
+    }
+
+    @Benchmark
+    public Page<GameListItem> findWishlistGames()
+    {
+        return gameRepository.findWishlistGames(GameStatus.WISHLIST, null, PageRequest.of(randomPage(), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<GameListItem> findWishlistGamesSearch()
+    {
+        return gameRepository.findWishlistGames(GameStatus.WISHLIST, "game 12", PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<GameListItem> findLibraryGames()
+    {
+        return gameRepository.findLibraryGames(LIBRARY_STATUSES, null, PageRequest.of(randomPage(), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<GameListItem> findLibraryGamesSearch()
+    {
+        return gameRepository.findLibraryGames(LIBRARY_STATUSES, "game 12", PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<GameListItem> findByStatusesUpdatedBefore()
+    {
+        return gameRepository.findByStatusesUpdatedBefore(
+                LIBRARY_STATUSES, null, randomUpdatedAt(), randomKey(), PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<WishlistGameRow> findByStatusReleasedAfter()
+    {
+        return gameRepository.findByStatusReleasedAfter(GameStatus.WISHLIST, MIN_RELEASE_DATE, MAX_RELEASE_DATE,
+                midRelease, randomKey(), PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<WishlistGameRow> findByStatusReleasedBefore()
+    {
+        return gameRepository.findByStatusReleasedBefore(GameStatus.WISHLIST, MIN_RELEASE_DATE, MAX_RELEASE_DATE,
+                midRelease, randomKey(), PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<WishlistGameRow> findByStatusUnreleasedAfter()
+    {
+        return gameRepository.findByStatusUnreleasedAfter(GameStatus.WISHLIST, randomKey(), PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public Page<WishlistGameRow> findRowsByStatus()
+    {
+        return gameRepository.findRowsByStatus(GameStatus.WISHLIST, dashboardPage());
+    }
+
+    @Benchmark
+    public Page<WishlistGameRow> findRowsByStatusAndReleaseDateLessThanEqual()
+    {
+        return gameRepository.findRowsByStatusAndReleaseDateLessThanEqual(GameStatus.WISHLIST, midRelease, dashboardPage());
+    }
+
+    @Benchmark
+    public Page<WishlistGameRow> findRowsByStatusAndReleaseDateAfter()
+    {
+        return gameRepository.findRowsByStatusAndReleaseDateAfter(GameStatus.WISHLIST, midRelease, dashboardPage());
+    }
+
+    private Pageable dashboardPage()
+    {
+        return PageRequest.of(randomPage(), PAGE_SIZE, Sort.by("releaseDate").ascending());
+    }
+}
@@ -0,0 +1,190 @@
+package com.matkon.gamelog.benchmarks.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the two RAWG endpoints GameService calls: GET /games?search=.. and GET /games/{id}.
+ * Answers are derived from the query / id, so the same request always returns the same games.
+ * Every response is delayed by a uniform latency in [minLatencyMs, maxLatencyMs] and fails with 500
+ * at errorRate.
+ */
+public class FakeRawgServer implements AutoCloseable
+{
+    private static final int SEARCH_PAGE_SIZE = 8;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int minLatencyMs;
+    private final int maxLatencyMs;
+    private final double errorRate;
+
+    private final AtomicLong searchRequests = new AtomicLong();
+    private final AtomicLong detailRequests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    public FakeRawgServer(int port, int minLatencyMs, int maxLatencyMs, double errorRate) throws IOException
+    {
+        if (minLatencyMs < 0 || maxLatencyMs < minLatencyMs) {
+            throw new IllegalArgumentException("Invalid latency range: " + minLatencyMs + ".." + maxLatencyMs);
+        }
+        this.minLatencyMs = minLatencyMs;
+        this.maxLatencyMs = maxLatencyMs;
+        this.errorRate = errorRate;
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/games", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public FakeRawgServer start()
+    {
+        server.start();
+        return this;
+    }
+
+    // value for rawg.api.url
+    public String getBaseUrl() {return "http://127.0.0.1:" + server.getAddress().getPort();}
+
+    public long getSearchRequests() {return searchRequests.get();}
+
+    public long getDetailRequests() {return detailRequests.get();}
+
+    public long getInjectedErrors() {return injectedErrors.get();}
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try {
+            URI uri = exchange.getRequestURI();
+            String path = uri.getPath();
+
+            boolean search = path.equals("/games") || path.equals("/games/");
+            if (search) {
+                searchRequests.incrementAndGet();
+            } else {
+                detailRequests.incrementAndGet();
+            }
+
+            simulateLatency();
+
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "{\"detail\": \"Method not allowed.\"}");
+            } else if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 500, "{\"detail\": \"Injected failure.\"}");
+            } else if (search) {
+                send(exchange, 200, searchResponse(queryParam(uri, "search")));
+            } else {
+                Long rawgId = parseId(path.substring("/games/".length()));
+                if (rawgId == null) {
+                    send(exchange, 404, "{\"detail\": \"Not found.\"}");
+                } else {
+                    send(exchange, 200, gameJson(rawgId));
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void simulateLatency()
+    {
+        int latency = minLatencyMs == maxLatencyMs
+                ? minLatencyMs
+                : ThreadLocalRandom.current().nextInt(minLatencyMs, maxLatencyMs + 1);
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String searchResponse(String query)
+    {
+        Random random = new Random(query == null ? 0 : query.hashCode());
+        StringBuilder json = new StringBuilder("{\"count\": ").append(SEARCH_PAGE_SIZE).append(", \"results\": [");
+        for (int i = 0; i < SEARCH_PAGE_SIZE; i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append(gameJson(1 + random.nextInt(2_000_000)));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String gameJson(long rawgId)
+    {
+        Random random = new Random(rawgId);
+        String title = SyntheticLibraryGenerator.title(random) + " " + rawgId;
+        String released = random.nextInt(10) == 0
+                ? "null"
+                : "\"" + LocalDate.now().plusDays(random.nextInt(3 * 365) - 2 * 365) + "\"";
+
+        // a few of the fields real responses carry, so the parser has something to skip
+        return "{\"id\": " + rawgId +
+                ", \"slug\": \"game-" + rawgId + "\"" +
+                ", \"name\": \"" + title + "\"" +
+                ", \"released\": " + released +
+                ", \"tba\": " + "null".equals(released) +
+                ", \"background_image\": \"https://media.example.test/games/" + rawgId + ".jpg\"" +
+                ", \"rating\": " + random.nextInt(50) / 10.0 +
+                ", \"platforms\": [{\"platform\": {\"id\": 4, \"name\": \"PC\", \"slug\": \"pc\"}}]" +
+                ", \"tags\": [{\"id\": 31, \"name\": \"Singleplayer\", \"language\": \"eng\"}]}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String queryParam(URI uri, String name)
+    {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static Long parseId(String value)
+    {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.matkon.gamelog.benchmarks.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Raw latencies of one operation; percentiles are computed once, at the end of the run
+class LatencyRecorder
+{
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] latencies = new long[1024];
+    private int count = 0;
+    private long errors = 0;
+
+    void record(long latencyNanos, boolean success)
+    {
+        lock.lock();
+        try {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Map<String, Object> summary(double seconds)
+    {
+        long[] sorted;
+        long errorCount;
+        lock.lock();
+        try {
+            sorted = Arrays.copyOf(latencies, count);
+            errorCount = errors;
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", sorted.length);
+        summary.put("errors", errorCount);
+        summary.put("throughput", sorted.length / seconds);
+        summary.put("p50Ms", percentileMs(sorted, 0.50));
+        summary.put("p95Ms", percentileMs(sorted, 0.95));
+        summary.put("p99Ms", percentileMs(sorted, 0.99));
+        summary.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+        return summary;
+    }
+
+    // nearest-rank
+    private static double percentileMs(long[] sorted, double percentile)
+    {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,315 @@
+package com.matkon.gamelog.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.matkon.gamelog.GameLogAppApplication;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.services.LibraryStatistics;
+import com.matkon.gamelog.services.OwnershipIndex;
+import com.matkon.gamelog.services.TitleTrigramIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test against GameController. Requests are started on a fixed schedule (--rate per second)
+ * whatever the response times are, and latency is measured from the scheduled start, so a slow server
+ * shows up as latency instead of quietly lowering the request rate.
+ * <p>
+ * Without --target the driver starts the application itself on a random port, with an in-memory H2
+ * database seeded by {@link SyntheticLibraryGenerator} and rawg.api.url pointing at a {@link FakeRawgServer}.
+ * Options (all --name=value): games, statuses, tba-ratio, upcoming-ratio, seed, rate, duration, warmup,
+ * mix, max-in-flight, rawg-min-latency, rawg-max-latency, rawg-error-rate, threads, target, result.
+ * <p>
+ * --threads=platform|virtual|both sets spring.threads.virtual.enabled on the started application; "both" runs the
+ * same scenario once per mode, each on a fresh application and database, and reports them side by side.
+ * Any --app.some.property=value is passed to the application as --some.property=value.
+ */
+public class LoadTestDriver
+{
+    enum Operation {SEARCH, ADD, UPDATE, LIST, DASHBOARD}
+
+    private static final GameStatus[] UPDATE_STATUSES = {
+            GameStatus.BACKLOG, GameStatus.PLAYING, GameStatus.COMPLETED, GameStatus.DROPPED, GameStatus.ONLINE
+    };
+    private static final String[] RELEASE_FILTERS = {"ALL", "RELEASED_ONLY", "NOT_RELEASED_ONLY"};
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final int games;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+
+    LoadTestDriver(String baseUrl, int games, Map<Operation, Integer> mix)
+    {
+        this.baseUrl = baseUrl;
+        this.games = games;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            if (arg.startsWith("--app.")) {
+                appArgs.add("--" + arg.substring("--app.".length()));
+            } else {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+
+        String threads = options.getOrDefault("threads", "platform");
+        List<String> modes = "both".equals(threads) ? List.of("platform", "virtual") : List.of(threads);
+        if (!List.of("platform", "virtual").containsAll(modes)) {
+            throw new IllegalArgumentException("--threads must be platform, virtual or both: " + threads);
+        }
+        if (options.containsKey("target")) {
+            // an external application runs in whatever mode it was started with
+            modes = List.of("external");
+        }
+
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (String mode : modes) {
+            runs.add(runSession(options, appArgs, mode));
+        }
+
+        File file = new File(options.getOrDefault("result", "target/loadtest-result.json"));
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file, runs.size() == 1 ? runs.get(0) : Map.of("runs", runs));
+        System.out.println("Results written to " + file.getPath());
+    }
+
+    private static Map<String, Object> runSession(Map<String, String> options, List<String> appArgs, String threads) throws Exception
+    {
+        int games = Integer.parseInt(options.getOrDefault("games", "10000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "1000"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", "search:30,add:10,update:10,list:35,dashboard:15"));
+
+        FakeRawgServer rawg = null;
+        ConfigurableApplicationContext context = null;
+        try {
+            String baseUrl = options.get("target");
+            if (baseUrl == null) {
+                rawg = new FakeRawgServer(0,
+                        Integer.parseInt(options.getOrDefault("rawg-min-latency", "50")),
+                        Integer.parseInt(options.getOrDefault("rawg-max-latency", "250")),
+                        Double.parseDouble(options.getOrDefault("rawg-error-rate", "0.01"))).start();
+
+                SyntheticLibraryGenerator generator = new SyntheticLibraryGenerator(
+                        Long.parseLong(options.getOrDefault("seed", "42")),
+                        SyntheticLibraryGenerator.parseWeights(options.getOrDefault("statuses",
+                                "WISHLIST:30,BACKLOG:30,PLAYING:5,COMPLETED:25,DROPPED:5,ONLINE:5")),
+                        Double.parseDouble(options.getOrDefault("tba-ratio", "0.1")),
+                        Double.parseDouble(options.getOrDefault("upcoming-ratio", "0.4")));
+
+                List<String> sessionArgs = new ArrayList<>(appArgs);
+                sessionArgs.add("--spring.threads.virtual.enabled=" + "virtual".equals(threads));
+                context = startApplication(rawg.getBaseUrl(), sessionArgs);
+                System.out.println("[" + threads + " threads] Seeding " + games + " games...");
+                generator.seed(context.getBean(JdbcTemplate.class), games);
+                // all three were loaded from the empty table at startup
+                context.getBean(TitleTrigramIndex.class).build();
+                context.getBean(LibraryStatistics.class).reconcile();
+                context.getBean(OwnershipIndex.class).load();
+
+                baseUrl = "http://127.0.0.1:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            }
+
+            LoadTestDriver driver = new LoadTestDriver(baseUrl, games, mix);
+
+            if (warmup > 0) {
+                System.out.println("[" + threads + " threads] Warming up for " + warmup + "s...");
+                driver.run(rate, warmup, maxInFlight);
+            }
+            System.out.println("[" + threads + " threads] Running " + rate + " req/s for " + duration + "s against " + baseUrl);
+            Map<Operation, LatencyRecorder> recorders = driver.run(rate, duration, maxInFlight);
+
+            return report(recorders, threads, rate, duration, rawg);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (rawg != null) {
+                rawg.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String rawgUrl, List<String> appArgs)
+    {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--rawg.api.url=" + rawgUrl,
+                "--rawg.api.key=loadtest"
+        ));
+        args.addAll(appArgs);
+        return new SpringApplicationBuilder(GameLogAppApplication.class).run(args.toArray(String[]::new));
+    }
+
+    static Map<Operation, Integer> parseMix(String spec)
+    {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Workload mix needs at least one positive weight: " + spec);
+        }
+        return mix;
+    }
+
+    Map<Operation, LatencyRecorder> run(double rate, int seconds, int maxInFlight) throws InterruptedException
+    {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : mix.keySet()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long total = (long) (rate * seconds);
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            inFlight.acquire();
+            Operation operation = nextOperation();
+            LatencyRecorder recorder = recorders.get(operation);
+            httpClient.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        boolean success = error == null && response.statusCode() / 100 == 2;
+                        recorder.record(System.nanoTime() - scheduled, success);
+                        inFlight.release();
+                    });
+        }
+
+        // let the tail finish before the numbers are read
+        if (!inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            System.err.println("Requests still in flight after 60s, results exclude them");
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        return recorders;
+    }
+
+    private Operation nextOperation()
+    {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private HttpRequest request(Operation operation)
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String api = baseUrl + "/api/games";
+
+        return switch (operation) {
+            case SEARCH -> get(api + "/search?query=" +
+                    URLEncoder.encode(SyntheticLibraryGenerator.title(random), StandardCharsets.UTF_8));
+            // rawg ids above the seeded range, mostly new games
+            case ADD -> HttpRequest.newBuilder(URI.create(api + "/add-library/" + (games + 1 + random.nextInt(1_000_000))))
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case UPDATE -> HttpRequest.newBuilder(URI.create(api + "/" + (1 + random.nextInt(Math.max(games, 1)))))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"platform\": \"PC\", \"status\": \"" +
+                            UPDATE_STATUSES[random.nextInt(UPDATE_STATUSES.length)] + "\", \"rating\": " +
+                            (1 + random.nextInt(10)) + ", \"notes\": \"load test\", \"favourite\": false}"))
+                    .build();
+            case LIST -> random.nextBoolean()
+                    ? get(api + "/library?page=" + random.nextInt(10) + "&size=8")
+                    : get(api + "/wishlist?page=" + random.nextInt(10) + "&size=8");
+            case DASHBOARD -> get(api + "/wishlist/dashboard?page=0&size=10&release=" +
+                    RELEASE_FILTERS[random.nextInt(RELEASE_FILTERS.length)]);
+        };
+    }
+
+    private static HttpRequest get(String url)
+    {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static Map<String, Object> report(Map<Operation, LatencyRecorder> recorders, String threads, double rate,
+                                              int seconds, FakeRawgServer rawg)
+    {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%n[%s threads]%n%-10s %9s %7s %10s %9s %9s %9s %9s%n",
+                threads, "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            Map<String, Object> summary = entry.getValue().summary(seconds);
+            operations.put(entry.getKey().name().toLowerCase(), summary);
+            System.out.printf("%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(), summary.get("requests"), summary.get("errors"),
+                    summary.get("throughput"), summary.get("p50Ms"), summary.get("p95Ms"),
+                    summary.get("p99Ms"), summary.get("maxMs"));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", threads);
+        report.put("targetRate", rate);
+        report.put("durationSeconds", seconds);
+        report.put("operations", operations);
+        if (rawg != null) {
+            Map<String, Object> upstream = new LinkedHashMap<>();
+            upstream.put("searchRequests", rawg.getSearchRequests());
+            upstream.put("detailRequests", rawg.getDetailRequests());
+            upstream.put("injectedErrors", rawg.getInjectedErrors());
+            report.put("fakeRawg", upstream);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,147 @@
+package com.matkon.gamelog.benchmarks.loadtest;
+
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic (seeded) game libraries: status picked by weight, release date either TBA, upcoming
+ * (wishlist only) or in the past. Titles are built from a small word list so search terms actually hit.
+ */
+public class SyntheticLibraryGenerator
+{
+    static final String[] WORDS = {
+            "dark", "souls", "legend", "star", "war", "shadow", "kingdom", "dragon", "city", "night",
+            "fire", "space", "dead", "last", "wild", "hunt", "iron", "quest", "tales", "storm",
+            "blood", "ghost", "empire", "world", "black", "red", "final", "fantasy", "rising", "origins"
+    };
+    private static final String[] PLATFORMS = {"PC", "PS5", "Xbox Series X", "Switch", "Steam Deck"};
+    private static final int SEED_BATCH = 5_000;
+
+    private final Random random;
+    private final Map<GameStatus, Integer> statusWeights;
+    private final int totalWeight;
+    private final double tbaRatio;
+    private final double upcomingRatio;
+    private final LocalDate today = LocalDate.now();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    /**
+     * @param statusWeights relative weight per status, missing statuses are never generated
+     * @param tbaRatio      share of games without release date
+     * @param upcomingRatio share of dated wishlist games that release in the next two years
+     */
+    public SyntheticLibraryGenerator(long seed, Map<GameStatus, Integer> statusWeights, double tbaRatio, double upcomingRatio)
+    {
+        this.random = new Random(seed);
+        this.statusWeights = new EnumMap<>(statusWeights);
+        this.totalWeight = statusWeights.values().stream().mapToInt(Integer::intValue).sum();
+        this.tbaRatio = tbaRatio;
+        this.upcomingRatio = upcomingRatio;
+
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one status needs a positive weight");
+        }
+    }
+
+    // "WISHLIST:30,BACKLOG:25,..." - same format the load test takes on the command line
+    public static Map<GameStatus, Integer> parseWeights(String spec)
+    {
+        Map<GameStatus, Integer> weights = new EnumMap<>(GameStatus.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            weights.put(GameStatus.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    public Game next(long rawgId)
+    {
+        Game game = new Game();
+        game.setRawgId(rawgId);
+        game.setTitle(title(random) + " " + rawgId);
+        game.setStatus(nextStatus());
+        game.setReleaseDate(nextReleaseDate(game.getStatus()));
+        game.setImageUrl("https://media.example.test/games/" + rawgId + ".jpg");
+        game.setPlatform(PLATFORMS[random.nextInt(PLATFORMS.length)]);
+        game.setFavourite(random.nextInt(20) == 0);
+        game.setUpdatedAt(now.minusMinutes(random.nextInt(2 * 365 * 24 * 60)));
+
+        if (game.getStatus() == GameStatus.COMPLETED) {
+            game.setCompletedAt(today.minusDays(random.nextInt(2 * 365)));
+        }
+        if (game.getStatus() == GameStatus.COMPLETED || game.getStatus() == GameStatus.DROPPED) {
+            game.setRating((double) (1 + random.nextInt(10)));
+        }
+        return game;
+    }
+
+    /**
+     * Inserts games with rawgId 1..size straight through JDBC (an empty table gets ids 1..size too).
+     */
+    public void seed(JdbcTemplate jdbcTemplate, int size)
+    {
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+        for (long rawgId = 1; rawgId <= size; rawgId++) {
+            Game game = next(rawgId);
+            rows.add(new Object[]{
+                    game.getRawgId(),
+                    game.getTitle(),
+                    game.getStatus().name(),
+                    game.getReleaseDate() != null ? Date.valueOf(game.getReleaseDate()) : null,
+                    game.getImageUrl(),
+                    game.getRating(),
+                    game.getPlatform(),
+                    game.isFavourite(),
+                    game.getCompletedAt() != null ? Date.valueOf(game.getCompletedAt()) : null,
+                    Timestamp.valueOf(game.getUpdatedAt()),
+                    Timestamp.valueOf(game.getUpdatedAt())
+            });
+            if (rows.size() == SEED_BATCH || rawgId == size) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO games (rawg_id, title, status, release_date, image_url, rating, platform, " +
+                                "favourite, completed_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        rows);
+                rows.clear();
+            }
+        }
+    }
+
+    static String title(Random random)
+    {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private GameStatus nextStatus()
+    {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<GameStatus, Integer> weight : statusWeights.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private LocalDate nextReleaseDate(GameStatus status)
+    {
+        if (random.nextDouble() < tbaRatio) {
+            return null;
+        }
+        if (status == GameStatus.WISHLIST && random.nextDouble() < upcomingRatio) {
+            return today.plusDays(1 + random.nextInt(2 * 365));
+        }
+        return today.minusDays(random.nextInt(25 * 365));
+    }
+}
@@ -0,0 +1,230 @@
+package com.matkon.gamelog.benchmarks.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the packaged application in each launch mode, each run in a fresh JVM:
+ * <ul>
+ *     <li>jar - java -jar on the executable (nested) jar</li>
+ *     <li>extracted - the jar extracted by the fast-startup build</li>
+ *     <li>aot - extracted, with spring.aot.enabled</li>
+ *     <li>aot-cds - extracted, AOT and the CDS archive recorded by the build</li>
+ * </ul>
+ * Time to first request is measured from process start until GET /api/games/library first answers 200, which
+ * includes JVM startup, context refresh, Flyway and the first query. RSS is read from /proc after that answer
+ * (Linux only, -1 elsewhere).
+ * <p>
+ * Needs mvn -Pfast-startup package in ../gamelog first. Options (all --name=value): modes, runs, app-dir, jar,
+ * profiles, timeout, result. Any --app.some.property=value is passed to the application as -Dsome.property=value.
+ */
+public class StartupBenchmark
+{
+    private static final List<String> MODES = List.of("jar", "extracted", "aot", "aot-cds");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private final Path appDir;
+    private final Path jar;
+    private final String profiles;
+    private final Duration timeout;
+    private final List<String> appProperties;
+
+    StartupBenchmark(Path appDir, Path jar, String profiles, Duration timeout, List<String> appProperties)
+    {
+        this.appDir = appDir;
+        this.jar = jar;
+        this.profiles = profiles;
+        this.timeout = timeout;
+        this.appProperties = appProperties;
+    }
+
+    record Sample(long timeToFirstRequestMs, long rssKb) {}
+
+    public static void main(String[] args) throws Exception
+    {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appProperties = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            if (arg.startsWith("--app.")) {
+                appProperties.add("-D" + arg.substring("--app.".length()));
+            } else {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", String.join(",", MODES)).split(","));
+        if (!MODES.containsAll(modes)) {
+            throw new IllegalArgumentException("--modes must be a subset of " + MODES + ": " + modes);
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        if (runs < 1) {
+            throw new IllegalArgumentException("--runs must be at least 1: " + runs);
+        }
+
+        Path appDir = Path.of(options.getOrDefault("app-dir", "../gamelog/target/app"));
+        Path jar = Path.of(options.getOrDefault("jar", "../gamelog/target/gamelog-0.0.1-SNAPSHOT.jar"));
+        StartupBenchmark benchmark = new StartupBenchmark(appDir, jar, options.getOrDefault("profiles", "prod"),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120"))), appProperties);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        System.out.printf("%-10s %5s %12s %12s %12s %12s%n", "mode", "runs", "ttfr p50 ms", "ttfr min ms", "rss p50 MB", "rss max MB");
+        for (String mode : modes) {
+            List<Sample> samples = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                samples.add(benchmark.measure(mode, run));
+            }
+            Map<String, Object> summary = summary(samples);
+            results.put(mode, summary);
+            System.out.printf("%-10s %5d %12d %12d %12.1f %12.1f%n", mode, runs,
+                    summary.get("timeToFirstRequestP50Ms"), summary.get("timeToFirstRequestMinMs"),
+                    summary.get("rssP50Mb"), summary.get("rssMaxMb"));
+        }
+
+        File file = new File(options.getOrDefault("result", "target/startup-result.json"));
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, results);
+        System.out.println("Results written to " + file.getPath());
+    }
+
+    Sample measure(String mode, int run) throws IOException, InterruptedException
+    {
+        int port = freePort();
+        List<String> command = command(mode, port);
+
+        Path log = Path.of("target", "startup-logs", mode + "-" + run + ".log");
+        Files.createDirectories(log.getParent());
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.equals("jar") ? null : appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long elapsedMs = awaitFirstResponse(process, port, start, log);
+            return new Sample(elapsedMs, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> command(String mode, int port)
+    {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("aot-cds")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+            // fail instead of quietly measuring a run without the archive
+            command.add("-Xshare:on");
+        }
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-Dserver.port=" + port);
+        command.add("-Dspring.profiles.active=" + profiles);
+        command.add("-Dspring.datasource.url=jdbc:h2:mem:startup");
+        command.add("-Dspring.main.banner-mode=off");
+        command.add("-Dlogging.level.root=WARN");
+        command.add("-Drawg.api.url=http://127.0.0.1:9");
+        command.add("-Drawg.api.key=startup");
+        // no background RAWG traffic while measuring
+        command.add("-Dgamelog.wishlist-refresh.enabled=false");
+        command.addAll(appProperties);
+        command.add("-jar");
+        command.add(mode.equals("jar") ? jar.toAbsolutePath().toString() : jar.getFileName().toString());
+        return command;
+    }
+
+    private long awaitFirstResponse(Process process, int port, long start, Path log) throws IOException, InterruptedException
+    {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/games/library?page=0&size=8"))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        long deadline = start + timeout.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No response within " + timeout + ", see " + log);
+    }
+
+    private static long rssKb(long pid)
+    {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException
+    {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, Object> summary(List<Sample> samples)
+    {
+        long[] times = samples.stream().mapToLong(Sample::timeToFirstRequestMs).sorted().toArray();
+        long[] rss = samples.stream().mapToLong(Sample::rssKb).sorted().toArray();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("runs", samples.size());
+        summary.put("timeToFirstRequestP50Ms", times[times.length / 2]);
+        summary.put("timeToFirstRequestMinMs", times[0]);
+        summary.put("timeToFirstRequestMaxMs", times[times.length - 1]);
+        summary.put("rssP50Mb", rss[rss.length / 2] / 1024.0);
+        summary.put("rssMaxMb", rss[rss.length - 1] / 1024.0);
+        summary.put("timeToFirstRequestMs", samples.stream().map(Sample::timeToFirstRequestMs).toList());
+        return summary;
+    }
+}
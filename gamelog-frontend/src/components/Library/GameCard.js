@@ -90,7 +90,7 @@ const GameCard = ({ game, onUpdate, showStatus = true }) => {
       <div className="game-card">
         <div className="game-image">
           {game.imageUrl ? (
-            <img src={game.imageUrl} alt={game.title} />
+            <img src={gameService.thumbnailUrl(game)} alt={game.title} loading="lazy" />
           ) : (
             <img src="gamer-placeholder.png" alt="no-image" />
           )}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import gameService from '../../services/gameService';
 import GameCard from './GameCard';
 import LoadingSpinner from '../Common/LoadingSpinner';
@@ -42,9 +42,9 @@ const Library = () => {
     }
   }, [debouncedSearchTerm, statusFilter]);
 
-  const loadLibraryGames = async (page) => {
+  const loadLibraryGames = async (page, quiet = false) => {
     try {
-      setLoading(true);
+      if (!quiet) setLoading(true);
       const response = await gameService.getLibraryGames(
         page,
         pageSize,
@@ -68,6 +68,28 @@ const Library = () => {
     }
   };
 
+  // Reload the current page when a library game changes elsewhere (another tab or device); bursts such as
+  // batch updates are coalesced into one reload
+  const reloadRef = useRef();
+  reloadRef.current = () => loadLibraryGames(currentPage, true);
+
+  useEffect(() => {
+    let timer;
+    const unsubscribe = gameService.subscribeToChanges((change) => {
+      const touchesLibrary = change.type === 'RESET'
+        || change.status !== 'WISHLIST'
+        || (change.previousStatus && change.previousStatus !== 'WISHLIST');
+      if (touchesLibrary) {
+        clearTimeout(timer);
+        timer = setTimeout(() => reloadRef.current(), 300);
+      }
+    });
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
+  }, []);
+
   const handleGameUpdate = () => {
     loadLibraryGames(currentPage);
   };
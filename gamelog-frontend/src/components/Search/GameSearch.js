@@ -120,7 +120,7 @@ const GameSearch = () => {
                 <div className="results-grid">
                   {searchResults.map((game) => (
                     <SearchResultCard
-                      key={game.id}
+                      key={game.rawgId}
                       game={game}
                       onGameAdded={() => {
                         setSearchQuery('');
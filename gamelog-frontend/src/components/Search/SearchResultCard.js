@@ -3,9 +3,15 @@ import gameService from '../../services/gameService';
 import { toast } from 'react-toastify';
 import EditGameModal from '../Library/EditGameModal';
 
+// libraryStatus comes with the search result: null = not added yet
+const ownedStatus = (libraryStatus) => {
+  if (!libraryStatus) return null;
+  return libraryStatus === 'WISHLIST' ? 'wishlist' : 'library';
+};
+
 const SearchResultCard = ({ game, onGameAdded }) => {
   const [isAdding, setIsAdding] = useState(false);
-  const [addedStatus, setAddedStatus] = useState(null);
+  const [addedStatus, setAddedStatus] = useState(ownedStatus(game.libraryStatus));
   const [showEditModal, setShowEditModal] = useState(false);
   const [gameData, setGameData] = useState(null);
 
@@ -23,8 +23,8 @@ const Wishlist = () => {
 
   const searchInputRef = useRef(null);
 
-  const fetchWishlistGames = async (page) => {
-    setLoading(true);
+  const fetchWishlistGames = async (page, quiet = false) => {
+    if (!quiet) setLoading(true);
     try {
       const response = await gameService.getWishlistGames(page, pageSize, debouncedSearchTerm);
       setWishlistGames(response.content || []);
@@ -54,6 +54,27 @@ const Wishlist = () => {
     fetchWishlistGames(currentPage);
   }, [currentPage, debouncedSearchTerm]);
 
+  // Reload the current page when a wishlist game changes elsewhere (another tab or device), coalescing bursts
+  const reloadRef = useRef();
+  reloadRef.current = () => fetchWishlistGames(currentPage, true);
+
+  useEffect(() => {
+    let timer;
+    const unsubscribe = gameService.subscribeToChanges((change) => {
+      const touchesWishlist = change.type === 'RESET'
+        || change.status === 'WISHLIST'
+        || change.previousStatus === 'WISHLIST';
+      if (touchesWishlist) {
+        clearTimeout(timer);
+        timer = setTimeout(() => reloadRef.current(), 300);
+      }
+    });
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
+  }, []);
+
   const handlePageChange = (newPage) => {
     setCurrentPage(newPage);
     window.scrollTo({ top: 0, behavior: 'smooth' });
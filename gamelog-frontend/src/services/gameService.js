@@ -115,7 +115,20 @@ const gameService = {
     } catch (error) {
       throw new Error('Failed to search games');
     }
-  }
+  },
+
+  // Change feed (server-sent events). EventSource reconnects by itself and the backend replays what was missed;
+  // 'reset' means events were lost, reload everything. Returns the unsubscribe function
+  subscribeToChanges: (onChange) => {
+    const source = new EventSource(`${API_BASE_URL}/games/events`);
+    ['added', 'updated', 'deleted', 'reset'].forEach((type) => {
+      source.addEventListener(type, (event) => onChange(JSON.parse(event.data)));
+    });
+    return () => source.close();
+  },
+
+  // Thumbnail served by the backend cache; v = current image URL, so the browser may keep it for a year
+  thumbnailUrl: (game) => `${API_BASE_URL}/games/${game.id}/thumbnail?v=${encodeURIComponent(game.imageUrl)}`
 };
 
 export default gameService;
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.matkon.gamelog.config;
+
+import com.matkon.gamelog.metrics.PersistenceContextMetrics;
+import com.matkon.gamelog.metrics.RawgClientMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Meters exposed on /actuator/prometheus; histogram and exposure settings are in application.yml
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer
+{
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry)
+    {
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public RawgClientMetrics rawgClientMetrics()
+    {
+        return new RawgClientMetrics(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry)
+    {
+        registry.addInterceptor(new PersistenceContextMetrics(entityManagerFactory, meterRegistry))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,76 @@
+package com.matkon.gamelog.config;
+
+import com.matkon.gamelog.metrics.RawgClientMetrics;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ReactiveConfig
+{
+    @Value("${rawg.client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${rawg.client.pending-acquire-max:1000}")
+    private int pendingAcquireMax;
+
+    @Value("${rawg.client.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    // longest wait for the response to start; the whole call is bounded by RawgResilience
+    @Value("${rawg.client.response-timeout:PT5S}")
+    private Duration responseTimeout;
+
+    @Value("${gamelog.jpa-scheduler.threads:10}")
+    private int jpaThreads;
+
+    @Value("${gamelog.jpa-scheduler.queue:1000}")
+    private int jpaQueue;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // One connection pool for every RAWG call
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider rawgConnectionProvider()
+    {
+        return ConnectionProvider.builder("rawg")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    public WebClient rawgWebClient(WebClient.Builder builder, ConnectionProvider rawgConnectionProvider,
+                                   RawgClientMetrics rawgClientMetrics)
+    {
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(rawgConnectionProvider)
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                        .responseTimeout(responseTimeout)))
+                .filter(rawgClientMetrics)
+                .build();
+    }
+
+    // Blocking JPA calls from reactive pipelines run here, never on Netty event-loop threads.
+    // In virtual-thread mode each call gets its own virtual thread and the Hikari pool is what bounds them.
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler()
+    {
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "jpa");
+        }
+        return Schedulers.newBoundedElastic(jpaThreads, jpaQueue, "jpa");
+    }
+}
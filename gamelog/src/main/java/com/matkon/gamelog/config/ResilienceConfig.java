@@ -0,0 +1,97 @@
+package com.matkon.gamelog.config;
+
+import com.matkon.gamelog.services.RawgResilience;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Circuit breaker and bulkhead for the RAWG client, applied to each call by RawgResilience
+@Configuration
+public class ResilienceConfig
+{
+    private static final Logger log = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    // percent of the last window-size calls that failed before the breaker opens
+    @Value("${rawg.client.circuit-breaker.failure-rate:50}")
+    private float failureRate;
+
+    @Value("${rawg.client.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${rawg.client.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${rawg.client.circuit-breaker.open-wait:PT30S}")
+    private Duration openWait;
+
+    @Value("${rawg.client.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    // below rawg.client.max-connections: the pool never becomes the queue
+    @Value("${rawg.client.bulkhead.max-concurrent:20}")
+    private int maxConcurrent;
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry()
+    {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRate)
+                .waitDurationInOpenState(openWait)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .recordException(RawgResilience::isOutage)
+                .build());
+    }
+
+    @Bean
+    public CircuitBreaker rawgCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry)
+    {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("rawg");
+        circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("RAWG circuit breaker: {}", event.getStateTransition()));
+        return circuitBreaker;
+    }
+
+    // non-blocking: a call that finds no free permit is rejected, it doesn't wait
+    @Bean
+    public BulkheadRegistry bulkheadRegistry()
+    {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrent)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    @Bean
+    public Bulkhead rawgBulkhead(BulkheadRegistry bulkheadRegistry)
+    {
+        return bulkheadRegistry.bulkhead("rawg");
+    }
+
+    @Bean
+    public MeterBinder circuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry)
+    {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry);
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(BulkheadRegistry bulkheadRegistry)
+    {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry);
+    }
+}
@@ -1,15 +1,46 @@
 package com.matkon.gamelog.controllers;
 
+import com.matkon.gamelog.data.BackupFormat;
+import com.matkon.gamelog.data.BatchUpdateRequest;
+import com.matkon.gamelog.data.BulkImportRequest;
+import com.matkon.gamelog.data.BulkImportResult;
+import com.matkon.gamelog.data.GameFeedEvent;
 import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameListItem;
 import com.matkon.gamelog.data.GameSaveResult;
+import com.matkon.gamelog.data.GameSelection;
 import com.matkon.gamelog.data.GameStatus;
 import com.matkon.gamelog.data.GameUpdateRequest;
+import com.matkon.gamelog.data.LibraryStats;
+import com.matkon.gamelog.data.PageResponse;
 import com.matkon.gamelog.data.ReleaseFilter;
+import com.matkon.gamelog.data.SearchCacheStats;
+import com.matkon.gamelog.data.SearchResult;
 import com.matkon.gamelog.data.WishlistGameForTableDTO;
+import com.matkon.gamelog.services.GameEventFeed;
 import com.matkon.gamelog.services.GameService;
+import com.matkon.gamelog.services.LibraryBackup;
+import com.matkon.gamelog.services.LibraryVersion;
+import com.matkon.gamelog.services.RawgUnavailableException;
+import com.matkon.gamelog.services.ThumbnailCache;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,72 +48,211 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/games")
 @CrossOrigin(origins = "*")
 public class GameController
 {
+    private static final Logger log = LoggerFactory.getLogger(GameController.class);
+
+    // Tomcat sendfile request attributes, see org.apache.catalina.Globals
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // what the list endpoints can be written as, in converter order (see MessageConverterConfig)
+    private static final List<MediaType> LIST_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.valueOf("application/x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
     private final GameService gameService;
+    private final LibraryVersion libraryVersion;
+    private final ThumbnailCache thumbnailCache;
+    private final LibraryBackup libraryBackup;
+    private final GameEventFeed gameEventFeed;
 
-    public GameController(GameService gameService)
+    public GameController(GameService gameService, LibraryVersion libraryVersion, ThumbnailCache thumbnailCache,
+                          LibraryBackup libraryBackup, GameEventFeed gameEventFeed)
     {
         this.gameService = gameService;
+        this.libraryVersion = libraryVersion;
+        this.thumbnailCache = thumbnailCache;
+        this.libraryBackup = libraryBackup;
+        this.gameEventFeed = gameEventFeed;
     }
 
     @GetMapping("/library")
-    @Operation(summary = "Get LIBRARY games (wishlist excluded)")
-    public ResponseEntity<Page<Game>> getLibraryGames(
+    @Operation(summary = "Get LIBRARY games (wishlist excluded); pass cursor (empty for the first page) for keyset paging")
+    public ResponseEntity<?> getLibraryGames(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "8") int size,
             @RequestParam(defaultValue = "ALL") String status,
-            @RequestParam(defaultValue = "") String search)
+            @RequestParam(defaultValue = "") String search,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
     {
+        String etag = libraryVersion.etag("library", selectedMediaType(accept), page, size, status, search, cursor);
+        if (matchesETag(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        try {
+            if (cursor != null) {
+                return okWithETag(etag, gameService.scrollLibraryGames(cursor, size, status, search));
+            }
 
-        Page<Game> games = gameService.getLibraryGames(page, size, status, search);
-        return ResponseEntity.ok(games);
+            Page<GameListItem> games = gameService.getLibraryGames(page, size, status, search);
+            return okWithETag(etag, PageResponse.of(games));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/wishlist")
-    @Operation(summary = "Get WISHLIST games")
-    public ResponseEntity<Page<Game>> getWishlistGames(
+    @Operation(summary = "Get WISHLIST games; pass cursor (empty for the first page) for keyset paging")
+    public ResponseEntity<?> getWishlistGames(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "8") int size,
-            @RequestParam(defaultValue = "") String search
+            @RequestParam(defaultValue = "") String search,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     )
     {
-        Page<Game> wishlistGames = gameService.getWishlistGames(page, size, search);
-        return ResponseEntity.ok(wishlistGames);
+        String etag = libraryVersion.etag("wishlist", selectedMediaType(accept), page, size, search, cursor);
+        if (matchesETag(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        try {
+            if (cursor != null) {
+                return okWithETag(etag, gameService.scrollWishlistGames(cursor, size, search));
+            }
+
+            Page<GameListItem> wishlistGames = gameService.getWishlistGames(page, size, search);
+            return okWithETag(etag, PageResponse.of(wishlistGames));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/wishlist/dashboard")
-    @Operation(summary = "Get WISHLIST games -> DASHBOARD TABLE")
-    public ResponseEntity<Page<WishlistGameForTableDTO>> getWishlistGamesDashboard(
+    @Operation(summary = "Get WISHLIST games -> DASHBOARD TABLE; pass cursor (empty for the first page) for keyset paging")
+    public ResponseEntity<?> getWishlistGamesDashboard(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "releaseDate,asc") String sort,
-            @RequestParam(defaultValue = "ALL") ReleaseFilter release
+            @RequestParam(defaultValue = "ALL") ReleaseFilter release,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     )
     {
-        Page<WishlistGameForTableDTO> games = gameService.getWishlistGamesDashboard(page, size, sort, release);
-        return ResponseEntity.ok(games);
+        // daysToRelease and the released/not released split move with the date, not only with writes
+        String etag = libraryVersion.etag("dashboard", selectedMediaType(accept), page, size, sort, release, cursor, LocalDate.now());
+        if (matchesETag(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        try {
+            if (cursor != null) {
+                return okWithETag(etag, gameService.scrollWishlistGamesDashboard(cursor, size, sort, release));
+            }
+
+            Page<WishlistGameForTableDTO> games = gameService.getWishlistGamesDashboard(page, size, sort, release);
+            return okWithETag(etag, PageResponse.of(games));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // EventSource reconnects by itself and sends the id of the last event it got as Last-Event-ID
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Change feed (server-sent events): added / updated / deleted games with id, status and updatedAt")
+    public SseEmitter getGameEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId)
+    {
+        // timeout 0: no async request timeout (spring.mvc.async.request-timeout), the stream stays open until the
+        // client goes away or the feed ends it
+        SseEmitter emitter = new SseEmitter(0L);
+        // one event requested at a time, so a slow client backs up in its feed queue, not in a prefetch buffer;
+        // the blocking writes run off the thread that published the change
+        Disposable subscription = gameEventFeed.subscribe(lastEventId)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .subscribe(event -> send(emitter, event), emitter::completeWithError, emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, ServerSentEvent<GameFeedEvent> event)
+    {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.data() != null) {
+            builder.data(event.data(), MediaType.APPLICATION_JSON);
+        }
+        try {
+            emitter.send(builder);
+        } catch (IOException e) {
+            // client gone; failing onNext cancels the subscription
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "Library statistics: games per status, average rating, favourites, completions per month")
+    public ResponseEntity<LibraryStats> getLibraryStatistics()
+    {
+        return ResponseEntity.ok(gameService.getLibraryStats());
     }
 
     @GetMapping("/search")
-    @Operation(summary = "[RAWG API] Search games by query")
+    @Operation(summary = "[RAWG API] Search games by query; each result carries its libraryStatus (null = not added)")
     public ResponseEntity<?> searchGames(@RequestParam String query)
     {
         try {
             return ResponseEntity.ok(gameService.searchGames(query));
+        } catch (RawgUnavailableException e) {
+            return serviceUnavailable(e).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body("Error searching external games: " + e.getMessage());
         }
     }
 
+    @GetMapping("/search/cache-stats")
+    @Operation(summary = "[RAWG API] Search cache hit/miss/eviction counters")
+    public ResponseEntity<SearchCacheStats> getSearchCacheStats()
+    {
+        return ResponseEntity.ok(gameService.getSearchCacheStats());
+    }
+
     @PostMapping("/add-library/{rawgId}")
     @Operation(summary = "[RAWG API] Save to LIBRARY by rawgId")
     public ResponseEntity<GameSaveResult> addGameToLibrary(@PathVariable Long rawgId)
@@ -90,6 +260,8 @@ public class GameController
         try {
             GameSaveResult result = gameService.saveGameToDatabase(rawgId, GameStatus.BACKLOG);
             return ResponseEntity.ok(result);
+        } catch (RawgUnavailableException e) {
+            return serviceUnavailable(e).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -102,11 +274,104 @@ public class GameController
         try {
             GameSaveResult result = gameService.saveGameToDatabase(rawgId, GameStatus.WISHLIST);
             return ResponseEntity.ok(result);
+        } catch (RawgUnavailableException e) {
+            return serviceUnavailable(e).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping("/bulk-import")
+    @Operation(summary = "[RAWG API] Bulk import many rawgIds into LIBRARY or WISHLIST")
+    public ResponseEntity<BulkImportResult> bulkImport(@RequestBody BulkImportRequest request)
+    {
+        if (request.getRawgIds() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        GameStatus status = request.getStatus() != null ? request.getStatus() : GameStatus.BACKLOG;
+        return ResponseEntity.ok(gameService.importGames(request.getRawgIds(), status));
+    }
+
+    @PostMapping("/batch-update")
+    @Operation(summary = "Change status / platform / favourite of many games (by ids and/or status + release window) at once")
+    public ResponseEntity<?> batchUpdate(@RequestBody BatchUpdateRequest request)
+    {
+        try {
+            return ResponseEntity.ok(gameService.batchUpdate(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/batch-delete")
+    @Operation(summary = "Delete many games (by ids and/or status + release window) at once")
+    public ResponseEntity<?> batchDelete(@RequestBody GameSelection selection)
+    {
+        try {
+            return ResponseEntity.ok(gameService.batchDelete(selection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Written straight to the response while the cursor is read, so the whole library is never in memory
+    @GetMapping("/export")
+    @Operation(summary = "Export the whole library as NDJSON (default) or CSV")
+    public void exportGames(@RequestParam(defaultValue = "NDJSON") BackupFormat format,
+                            HttpServletResponse response) throws IOException
+    {
+        response.setContentType(format.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("gamelog-" + LocalDate.now() + "." + format.getExtension())
+                .build()
+                .toString());
+        long rows = libraryBackup.export(format, response.getOutputStream());
+        log.debug("Exported {} games as {}", rows, format);
+    }
+
+    @PostMapping("/import")
+    @Operation(summary = "Import an NDJSON (default) or CSV export; games whose rawgId is already there are kept as they are")
+    public ResponseEntity<?> importGames(@RequestParam(defaultValue = "NDJSON") BackupFormat format,
+                                         InputStream body) throws IOException
+    {
+        try {
+            return ResponseEntity.ok(libraryBackup.importFrom(format, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/rx/search")
+    @Operation(summary = "[RAWG API] Search games by query (non-blocking)")
+    public Mono<ResponseEntity<List<SearchResult>>> searchGamesReactive(@RequestParam String query)
+    {
+        return gameService.searchGamesReactive(query)
+                .map(ResponseEntity::ok)
+                .onErrorResume(RawgUnavailableException.class, e -> Mono.just(serviceUnavailable(e).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.internalServerError().build()));
+    }
+
+    @PostMapping("/rx/add-library/{rawgId}")
+    @Operation(summary = "[RAWG API] Save to LIBRARY by rawgId (non-blocking)")
+    public Mono<ResponseEntity<GameSaveResult>> addGameToLibraryReactive(@PathVariable Long rawgId)
+    {
+        return gameService.saveGameToDatabaseReactive(rawgId, GameStatus.BACKLOG)
+                .map(ResponseEntity::ok)
+                .onErrorResume(RawgUnavailableException.class, e -> Mono.just(serviceUnavailable(e).build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @PostMapping("/rx/add-wishlist/{rawgId}")
+    @Operation(summary = "[RAWG API] Save to WISHLIST by rawgId (non-blocking)")
+    public Mono<ResponseEntity<GameSaveResult>> addToWishlistReactive(@PathVariable Long rawgId)
+    {
+        return gameService.saveGameToDatabaseReactive(rawgId, GameStatus.WISHLIST)
+                .map(ResponseEntity::ok)
+                .onErrorResume(RawgUnavailableException.class, e -> Mono.just(serviceUnavailable(e).build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete game from database by id")
     public ResponseEntity<Void> deleteGame(@PathVariable Long id)
@@ -128,4 +393,119 @@ public class GameController
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/thumbnail")
+    @Operation(summary = "Fixed-size thumbnail of the game image, generated once and served from the local cache; "
+            + "pass v = the game's imageUrl to get a response cacheable for a year")
+    public ResponseEntity<Resource> getThumbnail(
+            @PathVariable Long id,
+            @RequestParam(required = false) String v,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request)
+    {
+        String imageUrl = gameService.getImageUrl(id).orElse(null);
+        if (imageUrl == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ThumbnailCache.Thumbnail thumbnail;
+        try {
+            thumbnail = thumbnailCache.get(imageUrl);
+        } catch (IOException e) {
+            log.warn("No thumbnail for game {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(imageUrl)).build();
+        }
+
+        // the URL only names a fixed image when it carries the current source; otherwise revalidate by ETag
+        CacheControl cacheControl = imageUrl.equals(v)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache();
+        String etag = "\"" + thumbnail.hash() + "\"";
+        if (matchesETag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.IMAGE_JPEG)
+                .contentLength(thumbnail.size());
+
+        // Tomcat copies the file to the socket itself (sendfile), the bytes never pass through the JVM heap
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, thumbnail.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, thumbnail.size());
+            return ok.build();
+        }
+        return ok.body(new FileSystemResource(thumbnail.file()));
+    }
+
+    // RAWG is down or shedding load: tell the client when to try again instead of failing the request as ours
+    private static ResponseEntity.BodyBuilder serviceUnavailable(RawgUnavailableException e)
+    {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())));
+    }
+
+    // -- Conditional GET helpers
+
+    // If-None-Match uses weak comparison, so W/"x" matches "x"
+    private static boolean matchesETag(String ifNoneMatch, String etag)
+    {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // no-cache: clients may store the response but must revalidate it on every use
+    // The list body the message converters will write for this Accept header: JSON, Smile and CBOR pages are
+    // different representations, so they must not share an ETag. Same choice as Spring's: most specific and
+    // highest quality first, and JSON for wildcards, a missing header or one that doesn't parse
+    private static MediaType selectedMediaType(String accept)
+    {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(acceptable);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        for (MediaType type : acceptable) {
+            for (MediaType producible : LIST_MEDIA_TYPES) {
+                if (type.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    // Vary: a shared cache has to key these on the negotiated type and the (gzip) encoding, as the ETag does
+    private static ResponseEntity<?> okWithETag(String etag, Object body)
+    {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .body(body);
+    }
+
+    private static ResponseEntity<?> notModified(String etag)
+    {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.matkon.gamelog.data;
+
+public enum BackupFormat
+{
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    BackupFormat(String contentType, String extension)
+    {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {return contentType;}
+
+    public String getExtension() {return extension;}
+}
@@ -0,0 +1,17 @@
+package com.matkon.gamelog.data;
+
+public class BatchResult
+{
+    private final int matched;
+    private final int affected;
+
+    public BatchResult(int matched, int affected)
+    {
+        this.matched = matched;
+        this.affected = affected;
+    }
+
+    public int getMatched() {return matched;}
+
+    public int getAffected() {return affected;}
+}
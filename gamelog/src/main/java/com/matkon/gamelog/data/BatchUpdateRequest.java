@@ -0,0 +1,38 @@
+package com.matkon.gamelog.data;
+
+// Fields left null are not changed
+public class BatchUpdateRequest
+{
+    private GameSelection select;
+    private GameStatus status;
+    private String platform;
+    private Boolean favourite;
+
+    public BatchUpdateRequest() {}
+
+    public BatchUpdateRequest(GameSelection select, GameStatus status, String platform, Boolean favourite)
+    {
+        this.select = select;
+        this.status = status;
+        this.platform = platform;
+        this.favourite = favourite;
+    }
+
+    public boolean hasChanges() {return status != null || platform != null || favourite != null;}
+
+    public GameSelection getSelect() {return select;}
+
+    public void setSelect(GameSelection select) {this.select = select;}
+
+    public GameStatus getStatus() {return status;}
+
+    public void setStatus(GameStatus status) {this.status = status;}
+
+    public String getPlatform() {return platform;}
+
+    public void setPlatform(String platform) {this.platform = platform;}
+
+    public Boolean getFavourite() {return favourite;}
+
+    public void setFavourite(Boolean favourite) {this.favourite = favourite;}
+}
@@ -0,0 +1,25 @@
+package com.matkon.gamelog.data;
+
+public class BulkImportItem
+{
+    private final Long rawgId;
+    private final BulkImportOutcome outcome;
+    private final String title;
+    private final String message;
+
+    public BulkImportItem(Long rawgId, BulkImportOutcome outcome, String title, String message)
+    {
+        this.rawgId = rawgId;
+        this.outcome = outcome;
+        this.title = title;
+        this.message = message;
+    }
+
+    public Long getRawgId() {return rawgId;}
+
+    public BulkImportOutcome getOutcome() {return outcome;}
+
+    public String getTitle() {return title;}
+
+    public String getMessage() {return message;}
+}
@@ -0,0 +1,9 @@
+package com.matkon.gamelog.data;
+
+public enum BulkImportOutcome
+{
+    IMPORTED,        // Fetched from RAWG and inserted
+    ALREADY_EXISTS,  // rawgId was already in the database
+    NOT_FOUND,       // RAWG has no game with this id
+    FAILED           // RAWG call or insert failed
+}
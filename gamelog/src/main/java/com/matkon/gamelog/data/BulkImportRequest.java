@@ -0,0 +1,25 @@
+package com.matkon.gamelog.data;
+
+import java.util.List;
+
+public class BulkImportRequest
+{
+    private List<Long> rawgIds;
+    private GameStatus status = GameStatus.BACKLOG;
+
+    public BulkImportRequest() {}
+
+    public BulkImportRequest(List<Long> rawgIds, GameStatus status)
+    {
+        this.rawgIds = rawgIds;
+        this.status = status;
+    }
+
+    public List<Long> getRawgIds() {return rawgIds;}
+
+    public void setRawgIds(List<Long> rawgIds) {this.rawgIds = rawgIds;}
+
+    public GameStatus getStatus() {return status;}
+
+    public void setStatus(GameStatus status) {this.status = status;}
+}
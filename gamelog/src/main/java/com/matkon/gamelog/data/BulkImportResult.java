@@ -0,0 +1,32 @@
+package com.matkon.gamelog.data;
+
+import java.util.List;
+
+public class BulkImportResult
+{
+    private final int imported;
+    private final int alreadyExisting;
+    private final int failed;
+    private final List<BulkImportItem> items;
+
+    public BulkImportResult(List<BulkImportItem> items)
+    {
+        this.items = items;
+        this.imported = count(items, BulkImportOutcome.IMPORTED);
+        this.alreadyExisting = count(items, BulkImportOutcome.ALREADY_EXISTS);
+        this.failed = items.size() - imported - alreadyExisting;
+    }
+
+    private static int count(List<BulkImportItem> items, BulkImportOutcome outcome)
+    {
+        return (int) items.stream().filter(item -> item.getOutcome() == outcome).count();
+    }
+
+    public int getImported() {return imported;}
+
+    public int getAlreadyExisting() {return alreadyExisting;}
+
+    public int getFailed() {return failed;}
+
+    public List<BulkImportItem> getItems() {return items;}
+}
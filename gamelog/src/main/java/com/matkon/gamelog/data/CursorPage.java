@@ -0,0 +1,26 @@
+package com.matkon.gamelog.data;
+
+import java.util.List;
+
+// Keyset page: no total count, just the rows and an opaque token for the next request (null on the last page)
+public class CursorPage<T>
+{
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, int size, String nextCursor)
+    {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {return content;}
+
+    public int getSize() {return size;}
+
+    public String getNextCursor() {return nextCursor;}
+
+    public boolean isHasNext() {return nextCursor != null;}
+}
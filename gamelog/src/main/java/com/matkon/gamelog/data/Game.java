@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -16,7 +17,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "games")
+@Table(name = "games", indexes = {
+        // kept in sync with src/main/resources/db/migration
+        @Index(name = "idx_games_status_updated_at_id", columnList = "status, updated_at, id"),
+        @Index(name = "idx_games_status_release_date_id", columnList = "status, release_date, id"),
+        @Index(name = "idx_games_status_last_synced_at_id", columnList = "status, last_synced_at, id")
+})
 public class Game
 {
     // CUSTOM DATA
@@ -60,6 +66,10 @@ public class Game
     @Column(name = "image_url")
     private String imageUrl;
 
+    // last time the fields above were compared with RAWG
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
     // ---
 
     @PrePersist
@@ -139,4 +149,8 @@ public class Game
     public String getImageUrl() {return imageUrl;}
 
     public void setImageUrl(String imageUrl) {this.imageUrl = imageUrl;}
+
+    public LocalDateTime getLastSyncedAt() {return lastSyncedAt;}
+
+    public void setLastSyncedAt(LocalDateTime lastSyncedAt) {this.lastSyncedAt = lastSyncedAt;}
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One game in a library export / import: every column except the generated id
+public class GameBackupRow
+{
+    private Long rawgId;
+    private String title;
+    private GameStatus status;
+    private Double rating;
+    private String notes;
+    private String platform;
+    private boolean favourite;
+    private LocalDate completedAt;
+    private LocalDate releaseDate;
+    private String imageUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime lastSyncedAt;
+
+    public GameBackupRow() {}
+
+    public Long getRawgId() {return rawgId;}
+
+    public void setRawgId(Long rawgId) {this.rawgId = rawgId;}
+
+    public String getTitle() {return title;}
+
+    public void setTitle(String title) {this.title = title;}
+
+    public GameStatus getStatus() {return status;}
+
+    public void setStatus(GameStatus status) {this.status = status;}
+
+    public Double getRating() {return rating;}
+
+    public void setRating(Double rating) {this.rating = rating;}
+
+    public String getNotes() {return notes;}
+
+    public void setNotes(String notes) {this.notes = notes;}
+
+    public String getPlatform() {return platform;}
+
+    public void setPlatform(String platform) {this.platform = platform;}
+
+    public boolean isFavourite() {return favourite;}
+
+    public void setFavourite(boolean favourite) {this.favourite = favourite;}
+
+    public LocalDate getCompletedAt() {return completedAt;}
+
+    public void setCompletedAt(LocalDate completedAt) {this.completedAt = completedAt;}
+
+    public LocalDate getReleaseDate() {return releaseDate;}
+
+    public void setReleaseDate(LocalDate releaseDate) {this.releaseDate = releaseDate;}
+
+    public String getImageUrl() {return imageUrl;}
+
+    public void setImageUrl(String imageUrl) {this.imageUrl = imageUrl;}
+
+    public LocalDateTime getCreatedAt() {return createdAt;}
+
+    public void setCreatedAt(LocalDateTime createdAt) {this.createdAt = createdAt;}
+
+    public LocalDateTime getUpdatedAt() {return updatedAt;}
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {this.updatedAt = updatedAt;}
+
+    public LocalDateTime getLastSyncedAt() {return lastSyncedAt;}
+
+    public void setLastSyncedAt(LocalDateTime lastSyncedAt) {this.lastSyncedAt = lastSyncedAt;}
+}
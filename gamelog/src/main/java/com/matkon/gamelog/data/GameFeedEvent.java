@@ -0,0 +1,52 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the /api/games/events change feed: just enough for a client to decide which of its lists to
+ * refetch. previousStatus is set on updates that moved the game to another status. RESET carries no game and
+ * tells the client that events were missed (too far behind, or the server restarted), so it reloads everything.
+ */
+public class GameFeedEvent
+{
+    public enum Type {ADDED, UPDATED, DELETED, RESET}
+
+    private final Type type;
+    private final Long id;
+    private final GameStatus status;
+    private final GameStatus previousStatus;
+    private final LocalDateTime updatedAt;
+
+    public GameFeedEvent(Type type, Long id, GameStatus status, GameStatus previousStatus, LocalDateTime updatedAt)
+    {
+        this.type = type;
+        this.id = id;
+        this.status = status;
+        this.previousStatus = previousStatus;
+        this.updatedAt = updatedAt;
+    }
+
+    public static GameFeedEvent of(GameSnapshot before, GameSnapshot after)
+    {
+        if (before == null) {
+            return new GameFeedEvent(Type.ADDED, after.getId(), after.getStatus(), null, after.getUpdatedAt());
+        }
+        if (after == null) {
+            return new GameFeedEvent(Type.DELETED, before.getId(), before.getStatus(), null, before.getUpdatedAt());
+        }
+        GameStatus previous = before.getStatus() != after.getStatus() ? before.getStatus() : null;
+        return new GameFeedEvent(Type.UPDATED, after.getId(), after.getStatus(), previous, after.getUpdatedAt());
+    }
+
+    public static GameFeedEvent reset() {return new GameFeedEvent(Type.RESET, null, null, null, null);}
+
+    public Type getType() {return type;}
+
+    public Long getId() {return id;}
+
+    public GameStatus getStatus() {return status;}
+
+    public GameStatus getPreviousStatus() {return previousStatus;}
+
+    public LocalDateTime getUpdatedAt() {return updatedAt;}
+}
@@ -0,0 +1,59 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Read-only row for the library/wishlist grids: the columns the cards show (plus updatedAt for keyset cursors)
+public class GameListItem
+{
+    private final Long id;
+    private final String title;
+    private final GameStatus status;
+    private final Double rating;
+    private final String notes;
+    private final String platform;
+    private final boolean favourite;
+    private final LocalDate completedAt;
+    private final LocalDate releaseDate;
+    private final String imageUrl;
+    private final LocalDateTime updatedAt;
+
+    public GameListItem(Long id, String title, GameStatus status, Double rating, String notes, String platform,
+                        boolean favourite, LocalDate completedAt, LocalDate releaseDate, String imageUrl,
+                        LocalDateTime updatedAt)
+    {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.rating = rating;
+        this.notes = notes;
+        this.platform = platform;
+        this.favourite = favourite;
+        this.completedAt = completedAt;
+        this.releaseDate = releaseDate;
+        this.imageUrl = imageUrl;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {return id;}
+
+    public String getTitle() {return title;}
+
+    public GameStatus getStatus() {return status;}
+
+    public Double getRating() {return rating;}
+
+    public String getNotes() {return notes;}
+
+    public String getPlatform() {return platform;}
+
+    public boolean isFavourite() {return favourite;}
+
+    public LocalDate getCompletedAt() {return completedAt;}
+
+    public LocalDate getReleaseDate() {return releaseDate;}
+
+    public String getImageUrl() {return imageUrl;}
+
+    public LocalDateTime getUpdatedAt() {return updatedAt;}
+}
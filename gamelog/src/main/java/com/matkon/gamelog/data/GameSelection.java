@@ -0,0 +1,44 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Which games a batch operation applies to: explicit ids, a filter, or both (ids narrowed by the filter)
+public class GameSelection
+{
+    private List<Long> ids;
+    private GameStatus status;
+    // inclusive release window; either bound set excludes TBA games
+    private LocalDate releasedFrom;
+    private LocalDate releasedTo;
+
+    public GameSelection() {}
+
+    public GameSelection(List<Long> ids, GameStatus status, LocalDate releasedFrom, LocalDate releasedTo)
+    {
+        this.ids = ids;
+        this.status = status;
+        this.releasedFrom = releasedFrom;
+        this.releasedTo = releasedTo;
+    }
+
+    public boolean hasIds() {return ids != null && !ids.isEmpty();}
+
+    public boolean hasReleaseWindow() {return releasedFrom != null || releasedTo != null;}
+
+    public List<Long> getIds() {return ids;}
+
+    public void setIds(List<Long> ids) {this.ids = ids;}
+
+    public GameStatus getStatus() {return status;}
+
+    public void setStatus(GameStatus status) {this.status = status;}
+
+    public LocalDate getReleasedFrom() {return releasedFrom;}
+
+    public void setReleasedFrom(LocalDate releasedFrom) {this.releasedFrom = releasedFrom;}
+
+    public LocalDate getReleasedTo() {return releasedTo;}
+
+    public void setReleasedTo(LocalDate releasedTo) {this.releasedTo = releasedTo;}
+}
@@ -0,0 +1,56 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Immutable copy of the columns change listeners care about, taken before/after a write
+public class GameSnapshot
+{
+    private final Long id;
+    private final Long rawgId;
+    private final String title;
+    private final GameStatus status;
+    private final Double rating;
+    private final boolean favourite;
+    private final LocalDate completedAt;
+    private final LocalDate releaseDate;
+    private final LocalDateTime updatedAt;
+
+    public GameSnapshot(Long id, Long rawgId, String title, GameStatus status, Double rating, boolean favourite,
+                        LocalDate completedAt, LocalDate releaseDate, LocalDateTime updatedAt)
+    {
+        this.id = id;
+        this.rawgId = rawgId;
+        this.title = title;
+        this.status = status;
+        this.rating = rating;
+        this.favourite = favourite;
+        this.completedAt = completedAt;
+        this.releaseDate = releaseDate;
+        this.updatedAt = updatedAt;
+    }
+
+    public static GameSnapshot of(Game game)
+    {
+        return new GameSnapshot(game.getId(), game.getRawgId(), game.getTitle(), game.getStatus(), game.getRating(),
+                game.isFavourite(), game.getCompletedAt(), game.getReleaseDate(), game.getUpdatedAt());
+    }
+
+    public Long getId() {return id;}
+
+    public Long getRawgId() {return rawgId;}
+
+    public String getTitle() {return title;}
+
+    public GameStatus getStatus() {return status;}
+
+    public Double getRating() {return rating;}
+
+    public boolean isFavourite() {return favourite;}
+
+    public LocalDate getCompletedAt() {return completedAt;}
+
+    public LocalDate getReleaseDate() {return releaseDate;}
+
+    public LocalDateTime getUpdatedAt() {return updatedAt;}
+}
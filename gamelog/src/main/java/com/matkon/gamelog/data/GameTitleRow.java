@@ -0,0 +1,28 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDateTime;
+
+// Slim read of the columns TitleTrigramIndex needs
+public class GameTitleRow
+{
+    private final Long id;
+    private final String title;
+    private final GameStatus status;
+    private final LocalDateTime updatedAt;
+
+    public GameTitleRow(Long id, String title, GameStatus status, LocalDateTime updatedAt)
+    {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {return id;}
+
+    public String getTitle() {return title;}
+
+    public GameStatus getStatus() {return status;}
+
+    public LocalDateTime getUpdatedAt() {return updatedAt;}
+}
@@ -0,0 +1,27 @@
+package com.matkon.gamelog.data;
+
+// Counts only, so the result stays small however big the import was
+public class LibraryImportResult
+{
+    private final long read;
+    private final long imported;
+    private final long alreadyExisted;
+    private final long skipped;
+
+    public LibraryImportResult(long read, long imported, long alreadyExisted, long skipped)
+    {
+        this.read = read;
+        this.imported = imported;
+        this.alreadyExisted = alreadyExisted;
+        this.skipped = skipped;
+    }
+
+    public long getRead() {return read;}
+
+    public long getImported() {return imported;}
+
+    public long getAlreadyExisted() {return alreadyExisted;}
+
+    // rows without rawgId or title
+    public long getSkipped() {return skipped;}
+}
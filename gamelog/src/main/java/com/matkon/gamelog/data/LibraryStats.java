@@ -0,0 +1,37 @@
+package com.matkon.gamelog.data;
+
+import java.util.Map;
+
+public class LibraryStats
+{
+    private final long totalGames;
+    private final Map<GameStatus, Long> gamesByStatus;
+    private final Double averageRating;
+    private final long ratedGames;
+    private final long favourites;
+    // "yyyy-MM" -> games completed in that month, oldest first
+    private final Map<String, Long> completionsPerMonth;
+
+    public LibraryStats(long totalGames, Map<GameStatus, Long> gamesByStatus, Double averageRating, long ratedGames,
+                        long favourites, Map<String, Long> completionsPerMonth)
+    {
+        this.totalGames = totalGames;
+        this.gamesByStatus = gamesByStatus;
+        this.averageRating = averageRating;
+        this.ratedGames = ratedGames;
+        this.favourites = favourites;
+        this.completionsPerMonth = completionsPerMonth;
+    }
+
+    public long getTotalGames() {return totalGames;}
+
+    public Map<GameStatus, Long> getGamesByStatus() {return gamesByStatus;}
+
+    public Double getAverageRating() {return averageRating;}
+
+    public long getRatedGames() {return ratedGames;}
+
+    public long getFavourites() {return favourites;}
+
+    public Map<String, Long> getCompletionsPerMonth() {return completionsPerMonth;}
+}
@@ -0,0 +1,39 @@
+package com.matkon.gamelog.data;
+
+// One group of the statistics seed query: games sharing a status and completion month (null = not completed)
+public class LibraryStatsRow
+{
+    private final GameStatus status;
+    private final Integer completedYear;
+    private final Integer completedMonth;
+    private final long count;
+    private final long favourites;
+    private final double ratingSum;
+    private final long ratedCount;
+
+    public LibraryStatsRow(GameStatus status, Integer completedYear, Integer completedMonth, Long count,
+                           Long favourites, Double ratingSum, Long ratedCount)
+    {
+        this.status = status;
+        this.completedYear = completedYear;
+        this.completedMonth = completedMonth;
+        this.count = count != null ? count : 0L;
+        this.favourites = favourites != null ? favourites : 0L;
+        this.ratingSum = ratingSum != null ? ratingSum : 0.0;
+        this.ratedCount = ratedCount != null ? ratedCount : 0L;
+    }
+
+    public GameStatus getStatus() {return status;}
+
+    public Integer getCompletedYear() {return completedYear;}
+
+    public Integer getCompletedMonth() {return completedMonth;}
+
+    public long getCount() {return count;}
+
+    public long getFavourites() {return favourites;}
+
+    public double getRatingSum() {return ratingSum;}
+
+    public long getRatedCount() {return ratedCount;}
+}
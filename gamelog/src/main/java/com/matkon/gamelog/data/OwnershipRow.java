@@ -0,0 +1,22 @@
+package com.matkon.gamelog.data;
+
+// Slim read of the columns OwnershipIndex needs
+public class OwnershipRow
+{
+    private final Long id;
+    private final Long rawgId;
+    private final GameStatus status;
+
+    public OwnershipRow(Long id, Long rawgId, GameStatus status)
+    {
+        this.id = id;
+        this.rawgId = rawgId;
+        this.status = status;
+    }
+
+    public Long getId() {return id;}
+
+    public Long getRawgId() {return rawgId;}
+
+    public GameStatus getStatus() {return status;}
+}
@@ -0,0 +1,39 @@
+package com.matkon.gamelog.data;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// Offset page as sent to clients: Spring's Page minus the pageable/sort metadata nobody reads
+public class PageResponse<T>
+{
+    private final List<T> content;
+    private final int number;
+    private final int size;
+    private final long totalElements;
+    private final int totalPages;
+
+    public PageResponse(List<T> content, int number, int size, long totalElements, int totalPages)
+    {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page)
+    {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+
+    public List<T> getContent() {return content;}
+
+    public int getNumber() {return number;}
+
+    public int getSize() {return size;}
+
+    public long getTotalElements() {return totalElements;}
+
+    public int getTotalPages() {return totalPages;}
+}
@@ -0,0 +1,32 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDate;
+
+// Slim read of the columns WishlistRefresher compares against RAWG
+public class RefreshCandidate
+{
+    private final Long id;
+    private final Long rawgId;
+    private final String title;
+    private final LocalDate releaseDate;
+    private final String imageUrl;
+
+    public RefreshCandidate(Long id, Long rawgId, String title, LocalDate releaseDate, String imageUrl)
+    {
+        this.id = id;
+        this.rawgId = rawgId;
+        this.title = title;
+        this.releaseDate = releaseDate;
+        this.imageUrl = imageUrl;
+    }
+
+    public Long getId() {return id;}
+
+    public Long getRawgId() {return rawgId;}
+
+    public String getTitle() {return title;}
+
+    public LocalDate getReleaseDate() {return releaseDate;}
+
+    public String getImageUrl() {return imageUrl;}
+}
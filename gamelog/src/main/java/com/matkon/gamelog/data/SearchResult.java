@@ -0,0 +1,37 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDate;
+
+// One RAWG search hit; libraryStatus is the status of the local copy, null when the game isn't in the database
+public class SearchResult
+{
+    private final Long rawgId;
+    private final String title;
+    private final LocalDate releaseDate;
+    private final String imageUrl;
+    private final GameStatus libraryStatus;
+
+    public SearchResult(Long rawgId, String title, LocalDate releaseDate, String imageUrl, GameStatus libraryStatus)
+    {
+        this.rawgId = rawgId;
+        this.title = title;
+        this.releaseDate = releaseDate;
+        this.imageUrl = imageUrl;
+        this.libraryStatus = libraryStatus;
+    }
+
+    public static SearchResult of(Game game, GameStatus libraryStatus)
+    {
+        return new SearchResult(game.getRawgId(), game.getTitle(), game.getReleaseDate(), game.getImageUrl(), libraryStatus);
+    }
+
+    public Long getRawgId() {return rawgId;}
+
+    public String getTitle() {return title;}
+
+    public LocalDate getReleaseDate() {return releaseDate;}
+
+    public String getImageUrl() {return imageUrl;}
+
+    public GameStatus getLibraryStatus() {return libraryStatus;}
+}
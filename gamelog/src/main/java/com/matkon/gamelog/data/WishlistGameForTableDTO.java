@@ -12,27 +12,33 @@ public class WishlistGameForTableDTO
     private Long daysToRelease;
     private boolean isReleased;
 
-    public static WishlistGameForTableDTO fromEntity(Game game)
+    // today is passed in so a whole page is evaluated against one date
+    public static WishlistGameForTableDTO fromEntity(Game game, LocalDate today)
+    {
+        return of(game.getId(), game.getTitle(), game.getReleaseDate(), today);
+    }
+
+    public static WishlistGameForTableDTO fromRow(WishlistGameRow row, LocalDate today)
+    {
+        return of(row.getId(), row.getTitle(), row.getReleaseDate(), today);
+    }
+
+    private static WishlistGameForTableDTO of(Long id, String title, LocalDate releaseDate, LocalDate today)
     {
         WishlistGameForTableDTO dto = new WishlistGameForTableDTO();
-        dto.id = game.getId();
-        dto.title = game.getTitle();
-        dto.releaseDate = game.getReleaseDate();
-
-        dto.tba = (game.getReleaseDate() == null);
-
-        if (dto.releaseDate != null) {
-            LocalDate today = LocalDate.now();
-            if (dto.releaseDate.isAfter(today)) {
-                dto.daysToRelease = ChronoUnit.DAYS.between(today, dto.releaseDate);
-            } else {
-                dto.daysToRelease = null;
-            }
+        dto.id = id;
+        dto.title = title;
+        dto.releaseDate = releaseDate;
+
+        dto.tba = (releaseDate == null);
+
+        if (releaseDate != null && releaseDate.isAfter(today)) {
+            dto.daysToRelease = ChronoUnit.DAYS.between(today, releaseDate);
         } else {
             dto.daysToRelease = null;
         }
 
-        dto.isReleased = dto.releaseDate != null && !dto.releaseDate.isAfter(LocalDate.now());
+        dto.isReleased = releaseDate != null && !releaseDate.isAfter(today);
 
         return dto;
     }
@@ -0,0 +1,24 @@
+package com.matkon.gamelog.data;
+
+import java.time.LocalDate;
+
+// The three columns the dashboard table is built from
+public class WishlistGameRow
+{
+    private final Long id;
+    private final String title;
+    private final LocalDate releaseDate;
+
+    public WishlistGameRow(Long id, String title, LocalDate releaseDate)
+    {
+        this.id = id;
+        this.title = title;
+        this.releaseDate = releaseDate;
+    }
+
+    public Long getId() {return id;}
+
+    public String getTitle() {return title;}
+
+    public LocalDate getReleaseDate() {return releaseDate;}
+}
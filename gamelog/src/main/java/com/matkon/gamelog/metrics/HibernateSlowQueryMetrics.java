@@ -0,0 +1,50 @@
+package com.matkon.gamelog.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Complements the hibernate.* meters Boot binds from the statistics: hibernate.query.slow counts the distinct
+ * statements that took longer than hibernate.log_slow_query, hibernate.query.slow.max is the slowest of them.
+ * The statements themselves are in the org.hibernate.SQL_SLOW log.
+ */
+@Component
+public class HibernateSlowQueryMetrics implements MeterBinder
+{
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateSlowQueryMetrics(EntityManagerFactory entityManagerFactory)
+    {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Gauge.builder("hibernate.query.slow", statistics, stats -> stats.getSlowQueries().size())
+                .description("Distinct SQL statements slower than hibernate.log_slow_query")
+                .register(registry);
+
+        Gauge.builder("hibernate.query.slow.max", statistics, HibernateSlowQueryMetrics::slowestMillis)
+                .description("Execution time of the slowest statement")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private static double slowestMillis(Statistics statistics)
+    {
+        return statistics.getSlowQueries().values().stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,31 @@
+package com.matkon.gamelog.metrics;
+
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.services.LibraryStatistics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// gamelog.library.games{status=...}, read from the in-memory LibraryStatistics
+@Component
+public class LibraryMetrics implements MeterBinder
+{
+    private final LibraryStatistics libraryStatistics;
+
+    public LibraryMetrics(LibraryStatistics libraryStatistics)
+    {
+        this.libraryStatistics = libraryStatistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        for (GameStatus status : GameStatus.values()) {
+            Gauge.builder("gamelog.library.games", libraryStatistics, statistics -> statistics.count(status))
+                    .description("Games in the library by status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+}
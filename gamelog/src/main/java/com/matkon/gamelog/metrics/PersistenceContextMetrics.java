@@ -0,0 +1,47 @@
+package com.matkon.gamelog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * gamelog.request.entities.loaded: how many entities the request's persistence context holds once the
+ * handler is done. Relies on open-in-view, which keeps one EntityManager per request; list endpoints that
+ * read projections should stay at 0.
+ */
+public class PersistenceContextMetrics implements HandlerInterceptor
+{
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry registry;
+
+    public PersistenceContextMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry registry)
+    {
+        this.entityManagerFactory = entityManagerFactory;
+        this.registry = registry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView)
+    {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null || !entityManager.isOpen()) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("gamelog.request.entities.loaded")
+                .description("Entities in the persistence context at the end of a request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(registry)
+                .record(entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
@@ -0,0 +1,118 @@
+package com.matkon.gamelog.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebClient filter for the RAWG client. Unlike the generic http.client.requests timer it measures until the
+ * body has been read, and tags by call kind (search / detail) instead of by URI:
+ * <ul>
+ *     <li>rawg.client.requests - timer, tags kind and status (HTTP code, TIMEOUT or IO_ERROR)</li>
+ *     <li>rawg.client.timeouts - counter, tag kind</li>
+ *     <li>rawg.client.response.size - bytes received per response, tag kind</li>
+ * </ul>
+ * The kind comes from the {@link #KIND_ATTRIBUTE} request attribute.
+ */
+public class RawgClientMetrics implements ExchangeFilterFunction
+{
+    public static final String KIND_ATTRIBUTE = RawgClientMetrics.class.getName() + ".kind";
+    public static final String KIND_SEARCH = "search";
+    public static final String KIND_DETAIL = "detail";
+
+    private final MeterRegistry registry;
+
+    public RawgClientMetrics(MeterRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next)
+    {
+        String kind = request.attribute(KIND_ATTRIBUTE).map(Object::toString).orElse("other");
+
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return next.exchange(request)
+                    .map(response -> instrument(response, kind, sample))
+                    .doOnError(e -> {
+                        boolean timeout = isTimeout(e);
+                        if (timeout) {
+                            timeouts(kind).increment();
+                        }
+                        sample.stop(timer(kind, timeout ? "TIMEOUT" : "IO_ERROR"));
+                    });
+        });
+    }
+
+    // stops the timer once the body is fully consumed, released or cancelled
+    private ClientResponse instrument(ClientResponse response, String kind, Timer.Sample sample)
+    {
+        String status = String.valueOf(response.statusCode().value());
+        AtomicLong bytes = new AtomicLong();
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        return response.mutate()
+                .body(body -> body
+                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                        .doOnError(e -> {
+                            if (isTimeout(e)) {
+                                timeouts(kind).increment();
+                            }
+                        })
+                        .doFinally(signal -> {
+                            if (recorded.compareAndSet(false, true)) {
+                                sample.stop(timer(kind, status));
+                                responseSize(kind).record(bytes.get());
+                            }
+                        }))
+                .build();
+    }
+
+    private Timer timer(String kind, String status)
+    {
+        return Timer.builder("rawg.client.requests")
+                .description("RAWG API calls, including reading the response body")
+                .tag("kind", kind)
+                .tag("status", status)
+                .register(registry);
+    }
+
+    private Counter timeouts(String kind)
+    {
+        return Counter.builder("rawg.client.timeouts")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private DistributionSummary responseSize(String kind)
+    {
+        return DistributionSummary.builder("rawg.client.response.size")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private static boolean isTimeout(Throwable error)
+    {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof TimeoutException
+                    || e instanceof io.netty.handler.timeout.TimeoutException
+                    || e instanceof io.netty.channel.ConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
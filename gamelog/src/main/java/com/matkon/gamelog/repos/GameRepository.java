@@ -1,49 +1,286 @@
 package com.matkon.gamelog.repos;
 
 import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameListItem;
+import com.matkon.gamelog.data.GameSnapshot;
 import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.GameTitleRow;
+import com.matkon.gamelog.data.LibraryStatsRow;
+import com.matkon.gamelog.data.OwnershipRow;
+import com.matkon.gamelog.data.RefreshCandidate;
+import com.matkon.gamelog.data.WishlistGameRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface GameRepository extends JpaRepository<Game, Long>
+public interface GameRepository extends JpaRepository<Game, Long>, GameRepositoryCustom
 {
+    String LIST_ITEM_SELECT = "SELECT new com.matkon.gamelog.data.GameListItem(g.id, g.title, g.status, g.rating, " +
+            "g.notes, g.platform, g.favourite, g.completedAt, g.releaseDate, g.imageUrl, g.updatedAt) FROM Game g ";
+
+    String SNAPSHOT_SELECT = "SELECT new com.matkon.gamelog.data.GameSnapshot(g.id, g.rawgId, g.title, g.status, g.rating, " +
+            "g.favourite, g.completedAt, g.releaseDate, g.updatedAt) FROM Game g ";
+
+    String WISHLIST_ROW_SELECT = "SELECT new com.matkon.gamelog.data.WishlistGameRow(g.id, g.title, g.releaseDate) FROM Game g ";
+
     // Find game by RAWG ID
     Optional<Game> findByRawgId(Long rawgId);
 
+    // Insert-if-absent keyed on rawg_id; returns 1 when the row was inserted, 0 when it already existed
+    @Modifying
+    @Transactional
+    @Query(value = "MERGE INTO games g " +
+            "USING (SELECT CAST(:rawgId AS BIGINT) AS rawg_id) s ON (g.rawg_id = s.rawg_id) " +
+            "WHEN NOT MATCHED THEN INSERT (rawg_id, title, release_date, image_url, status, favourite, created_at, updated_at, last_synced_at) " +
+            "VALUES (:rawgId, :title, :releaseDate, :imageUrl, :status, FALSE, :now, :now, :now)",
+            nativeQuery = true)
+    int insertIfAbsent(
+            @Param("rawgId") Long rawgId,
+            @Param("title") String title,
+            @Param("releaseDate") LocalDate releaseDate,
+            @Param("imageUrl") String imageUrl,
+            @Param("status") String status,
+            @Param("now") LocalDateTime now
+    );
+
+    @Query("SELECT g.rawgId FROM Game g WHERE g.rawgId IN :rawgIds")
+    List<Long> findExistingRawgIds(@Param("rawgIds") Collection<Long> rawgIds);
+
+    // Title index: full load in id order
+    @Query("SELECT new com.matkon.gamelog.data.GameTitleRow(g.id, g.title, g.status, g.updatedAt) FROM Game g " +
+            "WHERE g.id > :afterId ORDER BY g.id")
+    List<GameTitleRow> findTitleRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Ownership index: full load in id order, and the lookup used until that load has finished
+    @Query("SELECT new com.matkon.gamelog.data.OwnershipRow(g.id, g.rawgId, g.status) FROM Game g " +
+            "WHERE g.id > :afterId ORDER BY g.id")
+    List<OwnershipRow> findOwnershipRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.matkon.gamelog.data.OwnershipRow(g.id, g.rawgId, g.status) FROM Game g WHERE g.rawgId IN :rawgIds")
+    List<OwnershipRow> findOwnershipByRawgIds(@Param("rawgIds") Collection<Long> rawgIds);
+
+    // Change events for freshly imported / refreshed rows
+    @Query(SNAPSHOT_SELECT + "WHERE g.rawgId IN :rawgIds")
+    List<GameSnapshot> findSnapshotsByRawgIds(@Param("rawgIds") Collection<Long> rawgIds);
+
+    @Query(SNAPSHOT_SELECT + "WHERE g.id IN :ids")
+    List<GameSnapshot> findSnapshotsByIds(@Param("ids") Collection<Long> ids);
+
+    // Batch operations: the selection is locked and read in the transaction of the set-based write, so the change
+    // events describe exactly the rows that write changed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM Game g WHERE g.id IN :ids")
+    List<Game> lockByIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM Game g WHERE g.status = :status")
+    List<Game> lockByStatus(@Param("status") GameStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM Game g WHERE g.status = :status AND g.releaseDate >= :from AND g.releaseDate <= :to")
+    List<Game> lockByStatusReleasedBetween(
+            @Param("status") GameStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // Set-based writes; bulk JPQL skips @PreUpdate, so updatedAt is passed in
+    String BATCH_UPDATE = "UPDATE Game g SET g.status = COALESCE(:status, g.status), g.platform = COALESCE(:platform, g.platform), " +
+            "g.favourite = COALESCE(:favourite, g.favourite), g.updatedAt = :now ";
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(BATCH_UPDATE + "WHERE g.id IN :ids")
+    int updateByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") GameStatus status,
+            @Param("platform") String platform,
+            @Param("favourite") Boolean favourite,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(BATCH_UPDATE + "WHERE g.status = :selectedStatus")
+    int updateByStatus(
+            @Param("selectedStatus") GameStatus selectedStatus,
+            @Param("status") GameStatus status,
+            @Param("platform") String platform,
+            @Param("favourite") Boolean favourite,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(BATCH_UPDATE + "WHERE g.status = :selectedStatus AND g.releaseDate >= :from AND g.releaseDate <= :to")
+    int updateByStatusReleasedBetween(
+            @Param("selectedStatus") GameStatus selectedStatus,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("status") GameStatus status,
+            @Param("platform") String platform,
+            @Param("favourite") Boolean favourite,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Game g WHERE g.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Game g WHERE g.status = :status")
+    int deleteByStatus(@Param("status") GameStatus status);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Game g WHERE g.status = :status AND g.releaseDate >= :from AND g.releaseDate <= :to")
+    int deleteByStatusReleasedBetween(
+            @Param("status") GameStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // Wishlist refresh: upcoming / TBA wishlist games, never synced first, then those not synced since syncedBefore.
+    // Two queries so each walks (status, last_synced_at, id) in index order, which an OR across both can't; the
+    // constant status / last_synced_at in ORDER BY let the planner see that and skip the sort.
+    @Query("SELECT new com.matkon.gamelog.data.RefreshCandidate(g.id, g.rawgId, g.title, g.releaseDate, g.imageUrl) " +
+            "FROM Game g WHERE g.status = :status AND g.lastSyncedAt IS NULL " +
+            "AND (g.releaseDate IS NULL OR g.releaseDate >= :today) ORDER BY g.status, g.lastSyncedAt, g.id")
+    List<RefreshCandidate> findUnsyncedRefreshCandidates(
+            @Param("status") GameStatus status,
+            @Param("today") LocalDate today,
+            Pageable limit
+    );
+
+    @Query("SELECT new com.matkon.gamelog.data.RefreshCandidate(g.id, g.rawgId, g.title, g.releaseDate, g.imageUrl) " +
+            "FROM Game g WHERE g.status = :status AND g.lastSyncedAt < :syncedBefore " +
+            "AND (g.releaseDate IS NULL OR g.releaseDate >= :today) ORDER BY g.status, g.lastSyncedAt, g.id")
+    List<RefreshCandidate> findStaleRefreshCandidates(
+            @Param("status") GameStatus status,
+            @Param("today") LocalDate today,
+            @Param("syncedBefore") LocalDateTime syncedBefore,
+            Pageable limit
+    );
+
+    // Checked against RAWG, nothing changed: only the sync time moves
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Game g SET g.lastSyncedAt = :now WHERE g.id IN :ids")
+    int markSynced(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
     // Find game by GAME ID
     Optional<Game> findById(Long id);
 
-    @Query("SELECT g FROM Game g WHERE g.status = :status " +
+    // Thumbnail endpoint: only the source URL, no entity
+    @Query("SELECT g.imageUrl FROM Game g WHERE g.id = :id")
+    Optional<String> findImageUrlById(@Param("id") Long id);
+
+    // List queries select into GameListItem / WishlistGameRow: only displayed columns, nothing managed by the persistence context
+    @Query(value = LIST_ITEM_SELECT + "WHERE g.status = :status " +
             "AND (:searchTerm IS NULL OR :searchTerm = '' OR LOWER(g.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-            "ORDER BY g.updatedAt DESC")
-    Page<Game> findWishlistGames(
+            "ORDER BY g.updatedAt DESC",
+            countQuery = "SELECT COUNT(g) FROM Game g WHERE g.status = :status " +
+                    "AND (:searchTerm IS NULL OR :searchTerm = '' OR LOWER(g.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<GameListItem> findWishlistGames(
             @Param("status") GameStatus status,
             @Param("searchTerm") String searchTerm,
             Pageable pageable
     );
 
-    @Query("SELECT g FROM Game g WHERE g.status != 'WISHLIST' " +
-            "AND (:status IS NULL OR g.status = :status) " +
+    // statuses = every non-WISHLIST status, or the single filtered one; IN (...) keeps it on idx_games_status_updated_at_id
+    @Query(value = LIST_ITEM_SELECT + "WHERE g.status IN :statuses " +
             "AND (:searchTerm IS NULL OR :searchTerm = '' OR LOWER(g.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-            "ORDER BY CASE WHEN g.status = 'PLAYING' THEN 0 ELSE 1 END, g.updatedAt DESC")
-    Page<Game> findLibraryGames(
-            @Param("status") GameStatus status,
+            "ORDER BY CASE WHEN g.status = 'PLAYING' THEN 0 ELSE 1 END, g.updatedAt DESC",
+            countQuery = "SELECT COUNT(g) FROM Game g WHERE g.status IN :statuses " +
+                    "AND (:searchTerm IS NULL OR :searchTerm = '' OR LOWER(g.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<GameListItem> findLibraryGames(
+            @Param("statuses") Collection<GameStatus> statuses,
             @Param("searchTerm") String searchTerm,
             Pageable pageable
     );
 
-    // for Wishlist table in Dashboard
-    Page<Game> findByStatus(GameStatus status, Pageable pageable);
+    // Keyset variants: no OFFSET, no count; (updatedAt, id) / (releaseDate, id) bound where the previous page ended
+    @Query(LIST_ITEM_SELECT + "WHERE g.status IN :statuses " +
+            "AND (:searchTerm IS NULL OR :searchTerm = '' OR LOWER(g.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "AND (g.updatedAt < :updatedAt OR (g.updatedAt = :updatedAt AND g.id < :id)) " +
+            "ORDER BY g.updatedAt DESC, g.id DESC")
+    List<GameListItem> findByStatusesUpdatedBefore(
+            @Param("statuses") Collection<GameStatus> statuses,
+            @Param("searchTerm") String searchTerm,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") Long id,
+            Pageable limit
+    );
+
+    @Query(WISHLIST_ROW_SELECT + "WHERE g.status = :status AND g.releaseDate >= :from AND g.releaseDate <= :to " +
+            "AND (g.releaseDate > :releaseDate OR (g.releaseDate = :releaseDate AND g.id > :id)) " +
+            "ORDER BY g.releaseDate ASC, g.id ASC")
+    List<WishlistGameRow> findByStatusReleasedAfter(
+            @Param("status") GameStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("releaseDate") LocalDate releaseDate,
+            @Param("id") Long id,
+            Pageable limit
+    );
+
+    @Query(WISHLIST_ROW_SELECT + "WHERE g.status = :status AND g.releaseDate >= :from AND g.releaseDate <= :to " +
+            "AND (g.releaseDate < :releaseDate OR (g.releaseDate = :releaseDate AND g.id < :id)) " +
+            "ORDER BY g.releaseDate DESC, g.id DESC")
+    List<WishlistGameRow> findByStatusReleasedBefore(
+            @Param("status") GameStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("releaseDate") LocalDate releaseDate,
+            @Param("id") Long id,
+            Pageable limit
+    );
+
+    // TBA games (no release date), always listed after the dated ones
+    @Query(WISHLIST_ROW_SELECT + "WHERE g.status = :status AND g.releaseDate IS NULL AND g.id > :id ORDER BY g.id ASC")
+    List<WishlistGameRow> findByStatusUnreleasedAfter(
+            @Param("status") GameStatus status,
+            @Param("id") Long id,
+            Pageable limit
+    );
+
+    // Single pass that seeds / reconciles LibraryStatistics
+    @Query("SELECT new com.matkon.gamelog.data.LibraryStatsRow(g.status, YEAR(g.completedAt), MONTH(g.completedAt), " +
+            "COUNT(g), SUM(CASE WHEN g.favourite = true THEN 1 ELSE 0 END), SUM(g.rating), COUNT(g.rating)) FROM Game g " +
+            "GROUP BY g.status, YEAR(g.completedAt), MONTH(g.completedAt)")
+    List<LibraryStatsRow> loadLibraryStats();
+
+    @Query(LIST_ITEM_SELECT + "WHERE g.id IN :ids")
+    List<GameListItem> findListItemsByIds(@Param("ids") Collection<Long> ids);
+
+    // for Wishlist table in Dashboard (sorted by the Pageable)
+    @Query(value = WISHLIST_ROW_SELECT + "WHERE g.status = :status",
+            countQuery = "SELECT COUNT(g) FROM Game g WHERE g.status = :status")
+    Page<WishlistGameRow> findRowsByStatus(@Param("status") GameStatus status, Pageable pageable);
 
-    Page<Game> findByStatusAndReleaseDateLessThanEqual(GameStatus status, LocalDate date, Pageable pageable);
+    @Query(value = WISHLIST_ROW_SELECT + "WHERE g.status = :status AND g.releaseDate <= :date",
+            countQuery = "SELECT COUNT(g) FROM Game g WHERE g.status = :status AND g.releaseDate <= :date")
+    Page<WishlistGameRow> findRowsByStatusAndReleaseDateLessThanEqual(
+            @Param("status") GameStatus status, @Param("date") LocalDate date, Pageable pageable);
 
-    Page<Game> findByStatusAndReleaseDateAfter(GameStatus status, LocalDate date, Pageable pageable);
+    @Query(value = WISHLIST_ROW_SELECT + "WHERE g.status = :status AND g.releaseDate > :date",
+            countQuery = "SELECT COUNT(g) FROM Game g WHERE g.status = :status AND g.releaseDate > :date")
+    Page<WishlistGameRow> findRowsByStatusAndReleaseDateAfter(
+            @Param("status") GameStatus status, @Param("date") LocalDate date, Pageable pageable);
 }
@@ -0,0 +1,25 @@
+package com.matkon.gamelog.repos;
+
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameBackupRow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface GameRepositoryCustom
+{
+    // JDBC-batched insert-if-absent keyed on rawgId; one entry per game, > 0 when that row was inserted
+    int[] insertIfAbsentBatch(List<Game> games);
+
+    // Writes only the given RAWG columns (title, release_date, image_url) and last_synced_at; updated_at stays,
+    // a background sync isn't a user edit. Returns the updated row count
+    int updateSyncedColumns(Long id, Map<String, Object> columns, LocalDateTime syncedAt);
+
+    // Export: every game in id order through a forward-only cursor, fetchSize rows per round trip, one at a time
+    void forEachBackupRow(int fetchSize, Consumer<GameBackupRow> action);
+
+    // Import: JDBC-batched insert-if-absent keyed on rawgId with every column; > 0 when that row was inserted
+    int[] insertBackupRows(List<GameBackupRow> rows);
+}
@@ -0,0 +1,168 @@
+package com.matkon.gamelog.repos;
+
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameBackupRow;
+import com.matkon.gamelog.data.GameStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Game.id is IDENTITY, so Hibernate can't batch inserts - bulk writes go straight through JDBC
+public class GameRepositoryImpl implements GameRepositoryCustom
+{
+    private static final String INSERT_IF_ABSENT_SQL = "MERGE INTO games g " +
+            "USING (SELECT CAST(? AS BIGINT) AS rawg_id) s ON (g.rawg_id = s.rawg_id) " +
+            "WHEN NOT MATCHED THEN INSERT (rawg_id, title, release_date, image_url, status, favourite, created_at, updated_at, last_synced_at) " +
+            "VALUES (?, ?, ?, ?, ?, FALSE, ?, ?, ?)";
+
+    private static final String BACKUP_COLUMNS = "rawg_id, title, status, rating, notes, platform, favourite, " +
+            "completed_at, release_date, image_url, created_at, updated_at, last_synced_at";
+
+    private static final String BACKUP_SELECT_SQL = "SELECT " + BACKUP_COLUMNS + " FROM games ORDER BY id";
+
+    private static final String BACKUP_INSERT_SQL = "MERGE INTO games g " +
+            "USING (SELECT CAST(? AS BIGINT) AS rawg_id) s ON (g.rawg_id = s.rawg_id) " +
+            "WHEN NOT MATCHED THEN INSERT (" + BACKUP_COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Set<String> SYNCED_COLUMNS = Set.of("title", "release_date", "image_url");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GameRepositoryImpl(JdbcTemplate jdbcTemplate)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public int[] insertIfAbsentBatch(List<Game> games)
+    {
+        LocalDateTime now = LocalDateTime.now();
+
+        return jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, new BatchPreparedStatementSetter()
+        {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException
+            {
+                Game game = games.get(i);
+                ps.setObject(1, game.getRawgId());
+                ps.setObject(2, game.getRawgId());
+                ps.setString(3, game.getTitle());
+                ps.setObject(4, game.getReleaseDate());
+                ps.setString(5, game.getImageUrl());
+                ps.setString(6, game.getStatus().name());
+                ps.setObject(7, now);
+                ps.setObject(8, now);
+                ps.setObject(9, now);
+            }
+
+            @Override
+            public int getBatchSize()
+            {
+                return games.size();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public int updateSyncedColumns(Long id, Map<String, Object> columns, LocalDateTime syncedAt)
+    {
+        StringBuilder sql = new StringBuilder("UPDATE games SET ");
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            if (!SYNCED_COLUMNS.contains(column.getKey())) {
+                throw new IllegalArgumentException("Not a synced column: " + column.getKey());
+            }
+            sql.append(column.getKey()).append(" = ?, ");
+            args.add(column.getValue());
+        }
+        sql.append("last_synced_at = ? WHERE id = ?");
+        args.add(syncedAt);
+        args.add(id);
+
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    // readOnly transaction: drivers such as PostgreSQL only honour the fetch size (use a cursor) outside autocommit
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachBackupRow(int fetchSize, Consumer<GameBackupRow> action)
+    {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(BACKUP_SELECT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(backupRow(rs)));
+    }
+
+    @Override
+    @Transactional
+    public int[] insertBackupRows(List<GameBackupRow> rows)
+    {
+        LocalDateTime now = LocalDateTime.now();
+
+        return jdbcTemplate.batchUpdate(BACKUP_INSERT_SQL, new BatchPreparedStatementSetter()
+        {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException
+            {
+                GameBackupRow row = rows.get(i);
+                ps.setObject(1, row.getRawgId());
+                ps.setObject(2, row.getRawgId());
+                ps.setString(3, row.getTitle());
+                ps.setString(4, row.getStatus() != null ? row.getStatus().name() : GameStatus.BACKLOG.name());
+                ps.setObject(5, row.getRating());
+                ps.setString(6, row.getNotes());
+                ps.setString(7, row.getPlatform());
+                ps.setBoolean(8, row.isFavourite());
+                ps.setObject(9, row.getCompletedAt());
+                ps.setObject(10, row.getReleaseDate());
+                ps.setString(11, row.getImageUrl());
+                ps.setObject(12, row.getCreatedAt() != null ? row.getCreatedAt() : now);
+                ps.setObject(13, row.getUpdatedAt() != null ? row.getUpdatedAt() : now);
+                ps.setObject(14, row.getLastSyncedAt());
+            }
+
+            @Override
+            public int getBatchSize()
+            {
+                return rows.size();
+            }
+        });
+    }
+
+    private static GameBackupRow backupRow(ResultSet rs) throws SQLException
+    {
+        GameBackupRow row = new GameBackupRow();
+        row.setRawgId(rs.getObject("rawg_id", Long.class));
+        row.setTitle(rs.getString("title"));
+        String status = rs.getString("status");
+        row.setStatus(status != null ? GameStatus.valueOf(status) : null);
+        row.setRating(rs.getObject("rating", Double.class));
+        row.setNotes(rs.getString("notes"));
+        row.setPlatform(rs.getString("platform"));
+        row.setFavourite(rs.getBoolean("favourite"));
+        row.setCompletedAt(rs.getObject("completed_at", LocalDate.class));
+        row.setReleaseDate(rs.getObject("release_date", LocalDate.class));
+        row.setImageUrl(rs.getString("image_url"));
+        row.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        row.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        row.setLastSyncedAt(rs.getObject("last_synced_at", LocalDateTime.class));
+        return row;
+    }
+}
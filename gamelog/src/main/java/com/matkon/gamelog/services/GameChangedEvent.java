@@ -0,0 +1,35 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameSnapshot;
+
+/**
+ * Published by GameService after a write went through: before is null for an insert, after is null for a delete.
+ * Listeners run synchronously on the writing thread, so they must be quick and must not throw.
+ */
+public class GameChangedEvent
+{
+    private final GameSnapshot before;
+    private final GameSnapshot after;
+
+    public GameChangedEvent(GameSnapshot before, GameSnapshot after)
+    {
+        this.before = before;
+        this.after = after;
+    }
+
+    public static GameChangedEvent inserted(GameSnapshot game) {return new GameChangedEvent(null, game);}
+
+    public static GameChangedEvent updated(GameSnapshot before, GameSnapshot after) {return new GameChangedEvent(before, after);}
+
+    public static GameChangedEvent deleted(GameSnapshot game) {return new GameChangedEvent(game, null);}
+
+    public GameSnapshot getBefore() {return before;}
+
+    public GameSnapshot getAfter() {return after;}
+
+    public Long getGameId() {return after != null ? after.getId() : before.getId();}
+
+    public boolean isInsert() {return before == null;}
+
+    public boolean isDelete() {return after == null;}
+}
@@ -0,0 +1,209 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameBackupRow;
+import com.matkon.gamelog.data.GameStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * RFC 4180 CSV for {@link GameBackupRow}, one record at a time in both directions. Null is written as an empty
+ * field and an empty string as "", so both survive a round trip; notes may contain commas, quotes and line breaks.
+ * Columns are matched by header name on import, unknown ones are ignored.
+ */
+final class GameCsv
+{
+    static final List<String> COLUMNS = List.of("rawgId", "title", "status", "rating", "notes", "platform", "favourite",
+            "completedAt", "releaseDate", "imageUrl", "createdAt", "updatedAt", "lastSyncedAt");
+
+    // characters, separators and quotes included; every column is at most VARCHAR(255), so a valid record is far
+    // shorter. Bounds what an unclosed quote or a line without breaks can make the reader buffer
+    static final int MAX_RECORD_LENGTH = 16 * 1024;
+
+    private GameCsv() {}
+
+    static void writeHeader(Writer out) throws IOException
+    {
+        out.write(String.join(",", COLUMNS));
+        out.write('\n');
+    }
+
+    static void writeRow(Writer out, GameBackupRow row) throws IOException
+    {
+        Object[] values = {row.getRawgId(), row.getTitle(), row.getStatus(), row.getRating(), row.getNotes(),
+                row.getPlatform(), row.isFavourite(), row.getCompletedAt(), row.getReleaseDate(), row.getImageUrl(),
+                row.getCreatedAt(), row.getUpdatedAt(), row.getLastSyncedAt()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeField(out, values[i].toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void writeField(Writer out, String value) throws IOException
+    {
+        boolean quote = value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    static final class Reader
+    {
+        private final BufferedReader in;
+        private final Map<String, Integer> header = new HashMap<>();
+        private long rows = 0;
+        // physical line being read, 1-based; quoted fields may span several
+        private long line = 1;
+
+        Reader(BufferedReader in) throws IOException
+        {
+            this.in = in;
+            List<String> names = readRecord();
+            if (names != null) {
+                for (int i = 0; i < names.size(); i++) {
+                    header.put(names.get(i) != null ? names.get(i).trim() : "", i);
+                }
+            }
+            if (!header.isEmpty() && (!header.containsKey("rawgId") || !header.containsKey("title"))) {
+                throw new IllegalArgumentException("CSV header must name at least the rawgId and title columns");
+            }
+        }
+
+        // null at the end of the input; blank lines are skipped
+        GameBackupRow next() throws IOException
+        {
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0) == null);
+
+            rows++;
+            try {
+                return toRow(fields);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("CSV row " + rows + " after the header: " + e.getMessage(), e);
+            }
+        }
+
+        private GameBackupRow toRow(List<String> fields)
+        {
+            GameBackupRow row = new GameBackupRow();
+            row.setRawgId(parse(fields, "rawgId", Long::valueOf));
+            row.setTitle(field(fields, "title"));
+            row.setStatus(parse(fields, "status", GameStatus::valueOf));
+            row.setRating(parse(fields, "rating", Double::valueOf));
+            row.setNotes(field(fields, "notes"));
+            row.setPlatform(field(fields, "platform"));
+            row.setFavourite(Boolean.TRUE.equals(parse(fields, "favourite", Boolean::valueOf)));
+            row.setCompletedAt(parse(fields, "completedAt", LocalDate::parse));
+            row.setReleaseDate(parse(fields, "releaseDate", LocalDate::parse));
+            row.setImageUrl(field(fields, "imageUrl"));
+            row.setCreatedAt(parse(fields, "createdAt", LocalDateTime::parse));
+            row.setUpdatedAt(parse(fields, "updatedAt", LocalDateTime::parse));
+            row.setLastSyncedAt(parse(fields, "lastSyncedAt", LocalDateTime::parse));
+            return row;
+        }
+
+        private String field(List<String> fields, String column)
+        {
+            Integer index = header.get(column);
+            return index != null && index < fields.size() ? fields.get(index) : null;
+        }
+
+        private <T> T parse(List<String> fields, String column, Function<String, T> parser)
+        {
+            String value = field(fields, column);
+            return value == null || value.isEmpty() ? null : parser.apply(value.trim());
+        }
+
+        // One record; quoted fields may span lines. Unquoted empty field -> null, "" -> empty string
+        private List<String> readRecord() throws IOException
+        {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            boolean quoted = false;
+            boolean any = false;
+            long quoteOpenedOn = 0;
+            long startLine = line;
+            int length = 0;
+
+            int c;
+            while ((c = in.read()) != -1) {
+                any = true;
+                if (++length > MAX_RECORD_LENGTH) {
+                    String where = inQuotes ? ", still inside the quoted field opened on line " + quoteOpenedOn : "";
+                    throw new IllegalArgumentException("CSV record starting on line " + startLine
+                            + " is longer than " + MAX_RECORD_LENGTH + " characters" + where);
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                if (inQuotes) {
+                    if (c != '"') {
+                        field.append((char) c);
+                        continue;
+                    }
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            in.reset();
+                        }
+                    }
+                } else if (c == '"') {
+                    inQuotes = true;
+                    quoted = true;
+                    quoteOpenedOn = line;
+                } else if (c == ',') {
+                    fields.add(value(field, quoted));
+                    field.setLength(0);
+                    quoted = false;
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+
+            if (!any) {
+                return null;
+            }
+            if (inQuotes) {
+                throw new IllegalArgumentException("CSV ends inside the quoted field opened on line " + quoteOpenedOn);
+            }
+            fields.add(value(field, quoted));
+            return fields;
+        }
+
+        private static String value(StringBuilder field, boolean quoted)
+        {
+            return field.isEmpty() && !quoted ? null : field.toString();
+        }
+    }
+}
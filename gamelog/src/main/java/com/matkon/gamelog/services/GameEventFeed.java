@@ -0,0 +1,182 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameFeedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fan-out of {@link GameChangedEvent}s to the /api/games/events SSE subscribers. Every subscriber has its own
+ * bounded queue that the writing thread only ever offers to, so a slow client never holds up a write: when its
+ * queue is full its stream is completed instead, and the browser reconnects with Last-Event-ID.
+ * <p>
+ * The last events are kept in a ring buffer for those reconnects. Event ids are "epoch-sequence"; an id from
+ * another server run, or older than the buffer, gets a RESET event so the client reloads its lists instead.
+ */
+@Component
+public class GameEventFeed
+{
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+    private final int subscriberBufferSize;
+
+    // guarded by lock: appending to the ring and offering to the subscribers is one step, and so is taking the
+    // replay and registering a new subscriber, so a reconnect sees every event exactly once
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Entry[] ring;
+    private final Set<Sinks.Many<Entry>> subscribers = new HashSet<>();
+    private long lastSequence = 0;
+
+    // event is null for a heartbeat
+    private record Entry(long sequence, GameFeedEvent event) {}
+
+    public GameEventFeed(@Value("${gamelog.events.replay-size:1000}") int replaySize,
+                         @Value("${gamelog.events.subscriber-buffer-size:256}") int subscriberBufferSize,
+                         MeterRegistry meterRegistry)
+    {
+        this.ring = new Entry[replaySize];
+        this.subscriberBufferSize = subscriberBufferSize;
+        Gauge.builder("gamelog.events.subscribers", this, GameEventFeed::getSubscriberCount)
+                .description("Open /api/games/events streams")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event)
+    {
+        GameFeedEvent feedEvent = GameFeedEvent.of(event.getBefore(), event.getAfter());
+        lock.lock();
+        try {
+            Entry entry = new Entry(++lastSequence, feedEvent);
+            ring[(int) (entry.sequence() % ring.length)] = entry;
+            offer(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // keeps idle connections open through proxies and finds clients that went away without closing
+    @Scheduled(fixedDelayString = "${gamelog.events.heartbeat:PT15S}")
+    public void heartbeat()
+    {
+        lock.lock();
+        try {
+            offer(new Entry(lastSequence, null));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // null lastEventId: a new client, live events only
+    public Flux<ServerSentEvent<GameFeedEvent>> subscribe(String lastEventId)
+    {
+        return Flux.defer(() -> {
+            Sinks.Many<Entry> sink = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<Entry>get(subscriberBufferSize).get());
+            List<Entry> replay;
+            lock.lock();
+            try {
+                replay = replayAfter(lastEventId);
+                subscribers.add(sink);
+            } finally {
+                lock.unlock();
+            }
+
+            return Flux.fromIterable(replay)
+                    .concatWith(sink.asFlux())
+                    .map(this::toServerSentEvent)
+                    .doFinally(signal -> unsubscribe(sink));
+        });
+    }
+
+    public int getSubscriberCount()
+    {
+        lock.lock();
+        try {
+            return subscribers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void offer(Entry entry)
+    {
+        // a copy: completing or cancelling a stream unsubscribes it from within the loop
+        for (Sinks.Many<Entry> sink : List.copyOf(subscribers)) {
+            if (sink.tryEmitNext(entry).isFailure()) {
+                // overflow: what is queued is still sent, then the stream ends and the client resumes from there
+                subscribers.remove(sink);
+                sink.tryEmitComplete();
+            }
+        }
+    }
+
+    private void unsubscribe(Sinks.Many<Entry> sink)
+    {
+        lock.lock();
+        try {
+            subscribers.remove(sink);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private List<Entry> replayAfter(String lastEventId)
+    {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+
+        long after = parseSequence(lastEventId.trim());
+        long oldest = Math.max(1, lastSequence - ring.length + 1);
+        if (after < oldest - 1 || after > lastSequence) {
+            return List.of(new Entry(lastSequence, GameFeedEvent.reset()));
+        }
+
+        List<Entry> replay = new ArrayList<>((int) (lastSequence - after));
+        for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+            replay.add(ring[(int) (sequence % ring.length)]);
+        }
+        return replay;
+    }
+
+    // -1 (so a reset) for ids of another run or that aren't ours at all
+    private long parseSequence(String eventId)
+    {
+        int dash = eventId.lastIndexOf('-');
+        if (dash <= 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private ServerSentEvent<GameFeedEvent> toServerSentEvent(Entry entry)
+    {
+        if (entry.event() == null) {
+            return ServerSentEvent.<GameFeedEvent>builder().comment("heartbeat").build();
+        }
+        return ServerSentEvent.<GameFeedEvent>builder()
+                .id(epoch + "-" + entry.sequence())
+                .event(entry.event().getType().name().toLowerCase())
+                .data(entry.event())
+                .build();
+    }
+}
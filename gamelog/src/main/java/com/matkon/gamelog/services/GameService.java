@@ -1,38 +1,108 @@
 package com.matkon.gamelog.services;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.matkon.gamelog.data.BatchResult;
+import com.matkon.gamelog.data.BatchUpdateRequest;
+import com.matkon.gamelog.data.BulkImportItem;
+import com.matkon.gamelog.data.BulkImportOutcome;
+import com.matkon.gamelog.data.BulkImportResult;
+import com.matkon.gamelog.data.CursorPage;
 import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameListItem;
 import com.matkon.gamelog.data.GameSaveResult;
+import com.matkon.gamelog.data.GameSelection;
+import com.matkon.gamelog.data.GameSnapshot;
 import com.matkon.gamelog.data.GameStatus;
 import com.matkon.gamelog.data.GameUpdateRequest;
+import com.matkon.gamelog.data.LibraryStats;
 import com.matkon.gamelog.data.ReleaseFilter;
+import com.matkon.gamelog.data.SearchCacheStats;
+import com.matkon.gamelog.data.SearchResult;
 import com.matkon.gamelog.data.WishlistGameForTableDTO;
+import com.matkon.gamelog.data.WishlistGameRow;
+import com.matkon.gamelog.metrics.RawgClientMetrics;
 import com.matkon.gamelog.repos.GameRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
-
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.InputStream;
+import java.sql.Statement;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 public class GameService
 {
+    private static final Logger log = LoggerFactory.getLogger(GameService.class);
+
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private TitleTrigramIndex titleIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LibraryStatistics libraryStatistics;
+
+    @Autowired
+    private RawgResilience rawgResilience;
+
+    @Autowired
+    private OwnershipIndex ownershipIndex;
+
+    @Autowired
+    private ListResultCache listCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final Scheduler jpaScheduler;
+    private final RawgGameParser rawgParser;
 
     @Value("${rawg.api.url}")
     private String rawgApiUrl;
@@ -40,24 +110,91 @@ public class GameService
     @Value("${rawg.api.key}")
     private String rawgApiKey;
 
-    public GameService()
+    @Value("${rawg.search-cache.max-size:1000}")
+    private long searchCacheMaxSize;
+
+    @Value("${rawg.search-cache.ttl-seconds:600}")
+    private long searchCacheTtlSeconds;
+
+    // normalised query -> parsed RAWG results; concurrent misses for the same key share one upstream call
+    private AsyncLoadingCache<String, List<Game>> searchCache;
+
+    @Value("${rawg.import.concurrency:8}")
+    private int importConcurrency;
+
+    @Value("${rawg.import.batch-size:500}")
+    private int importBatchSize;
+
+    // Same orderings as findWishlistGames / findLibraryGames, applied to title index matches
+    static final Comparator<TitleTrigramIndex.Match> WISHLIST_ORDER = Comparator
+            .comparing(TitleTrigramIndex.Match::updatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TitleTrigramIndex.Match::id, Comparator.reverseOrder());
+
+    static final Comparator<TitleTrigramIndex.Match> LIBRARY_ORDER = Comparator
+            .comparing((TitleTrigramIndex.Match m) -> m.status() == GameStatus.PLAYING ? 0 : 1)
+            .thenComparing(WISHLIST_ORDER);
+
+    private static final Set<GameStatus> WISHLIST_PARTITION = EnumSet.of(GameStatus.WISHLIST);
+
+    // Keyset sentinels: a first page starts "after" these bounds
+    private static final LocalDateTime KEYSET_MAX_UPDATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final LocalDate KEYSET_MIN_RELEASE_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate KEYSET_MAX_RELEASE_DATE = LocalDate.of(9999, 12, 31);
+
+    // rawgId -> add currently in progress, so concurrent adds of one game share a single RAWG fetch
+    private final ConcurrentMap<Long, CompletableFuture<GameSaveResult>> pendingAdds = new ConcurrentHashMap<>();
+
+    public GameService(WebClient rawgWebClient, Scheduler jpaScheduler)
     {
-        this.webClient = WebClient.builder().build();
-        this.objectMapper = new ObjectMapper();
+        this.webClient = rawgWebClient;
+        this.jpaScheduler = jpaScheduler;
+        this.rawgParser = new RawgGameParser();
     }
 
-    public Page<Game> getWishlistGames(int page, int size, String searchTerm)
+    @PostConstruct
+    void initSearchCache()
+    {
+        this.searchCache = Caffeine.newBuilder()
+                .maximumSize(searchCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(searchCacheTtlSeconds))
+                .recordStats()
+                .buildAsync((query, executor) -> fetchSearchResults(query).toFuture());
+    }
+
+    // The three paged lists below go through listCache and have no transaction of their own, so a hit doesn't
+    // take a connection; each miss is a single repository call (or title index + one call)
+    public Page<GameListItem> getWishlistGames(int page, int size, String searchTerm)
+    {
+        return listCache.get("wishlist", WISHLIST_PARTITION,
+                () -> loadWishlistGames(page, size, searchTerm), page, size, searchTerm);
+    }
+
+    private Page<GameListItem> loadWishlistGames(int page, int size, String searchTerm)
     {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt"));
 
         if (searchTerm != null && !searchTerm.isBlank()) {
-            return gameRepository.findWishlistGames(GameStatus.WISHLIST, searchTerm, pageable);
+            Optional<Page<GameListItem>> indexed = searchByTitleIndex(
+                    searchTerm, s -> s == GameStatus.WISHLIST, WISHLIST_ORDER, pageable);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
         }
 
         return gameRepository.findWishlistGames(GameStatus.WISHLIST, searchTerm, pageable);
     }
 
     public Page<WishlistGameForTableDTO> getWishlistGamesDashboard(int page, int size, String sort, ReleaseFilter releaseFilter)
+    {
+        // daysToRelease and the release split depend on the date as well
+        LocalDate today = LocalDate.now();
+        return listCache.get("dashboard", WISHLIST_PARTITION,
+                () -> loadWishlistGamesDashboard(page, size, sort, releaseFilter, today),
+                page, size, sort, releaseFilter, today);
+    }
+
+    private Page<WishlistGameForTableDTO> loadWishlistGamesDashboard(int page, int size, String sort,
+                                                                     ReleaseFilter releaseFilter, LocalDate today)
     {
         String[] sortParts = sort.split(",");
         String field = sortParts[0].trim();
@@ -66,187 +203,752 @@ public class GameService
                 : Sort.Direction.ASC;
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, field));
-        LocalDate today = LocalDate.now();
 
-        Page<Game> games = switch (releaseFilter) {
+        Page<WishlistGameRow> games = switch (releaseFilter) {
             case RELEASED_ONLY ->
-                    gameRepository.findByStatusAndReleaseDateLessThanEqual(GameStatus.WISHLIST, today, pageable);
+                    gameRepository.findRowsByStatusAndReleaseDateLessThanEqual(GameStatus.WISHLIST, today, pageable);
             case NOT_RELEASED_ONLY ->
-                    gameRepository.findByStatusAndReleaseDateAfter(GameStatus.WISHLIST, today, pageable);
-            default -> gameRepository.findByStatus(GameStatus.WISHLIST, pageable);
+                    gameRepository.findRowsByStatusAndReleaseDateAfter(GameStatus.WISHLIST, today, pageable);
+            default -> gameRepository.findRowsByStatus(GameStatus.WISHLIST, pageable);
         };
 
-        return games.map(WishlistGameForTableDTO::fromEntity);
+        return games.map(row -> WishlistGameForTableDTO.fromRow(row, today));
     }
 
 
-    public Page<Game> getLibraryGames(int page, int size, String status, String searchTerm)
+    public Page<GameListItem> getLibraryGames(int page, int size, String status, String searchTerm)
+    {
+        Set<GameStatus> statuses = libraryStatuses(status);
+        if (statuses.isEmpty()) {
+            return Page.empty(PageRequest.of(page, size));
+        }
+
+        return listCache.get("library", statuses,
+                () -> loadLibraryGames(page, size, statuses, searchTerm), page, size, statuses, searchTerm);
+    }
+
+    private Page<GameListItem> loadLibraryGames(int page, int size, Set<GameStatus> statuses, String searchTerm)
     {
         Pageable pageable = PageRequest.of(page, size);
 
-        GameStatus dbStatus;
-        if (status == null || "ALL".equals(status) || status.trim().isEmpty()) {
-            dbStatus = null;
-        } else {
-            try {
-                dbStatus = GameStatus.valueOf(status.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Invalid status: " + status);
+        String dbSearchTerm = (searchTerm == null || searchTerm.trim().isEmpty()) ? null : searchTerm;
+
+        if (dbSearchTerm != null) {
+            Optional<Page<GameListItem>> indexed = searchByTitleIndex(dbSearchTerm, statuses::contains, LIBRARY_ORDER, pageable);
+            if (indexed.isPresent()) {
+                return indexed.get();
             }
         }
 
+        return gameRepository.findLibraryGames(statuses, dbSearchTerm, pageable);
+    }
+
+    // Every non-WISHLIST status for "ALL", otherwise just the requested one (empty when that is WISHLIST)
+    private static Set<GameStatus> libraryStatuses(String status)
+    {
+        Set<GameStatus> statuses = EnumSet.complementOf(EnumSet.of(GameStatus.WISHLIST));
+        if (status == null || "ALL".equals(status) || status.trim().isEmpty()) {
+            return statuses;
+        }
+
+        GameStatus dbStatus;
+        try {
+            dbStatus = GameStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+
+        statuses.retainAll(EnumSet.of(dbStatus));
+        return statuses;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<GameListItem> scrollWishlistGames(String cursor, int size, String searchTerm)
+    {
+        return scrollByUpdatedAt(List.of(EnumSet.of(GameStatus.WISHLIST)), cursor, size, searchTerm);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<GameListItem> scrollLibraryGames(String cursor, int size, String status, String searchTerm)
+    {
+        // PLAYING games first, then the rest - each segment walks (updatedAt DESC, id DESC) on its own
+        Set<GameStatus> statuses = libraryStatuses(status);
+        List<Set<GameStatus>> segments = new ArrayList<>();
+        if (statuses.remove(GameStatus.PLAYING)) {
+            segments.add(EnumSet.of(GameStatus.PLAYING));
+        }
+        if (!statuses.isEmpty()) {
+            segments.add(statuses);
+        }
+
+        return scrollByUpdatedAt(segments, cursor, size, searchTerm);
+    }
+
+    private CursorPage<GameListItem> scrollByUpdatedAt(List<Set<GameStatus>> segments, String cursor, int size, String searchTerm)
+    {
+        requirePositiveSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor, segments.size());
         String dbSearchTerm = (searchTerm == null || searchTerm.trim().isEmpty()) ? null : searchTerm;
 
-        return gameRepository.findLibraryGames(dbStatus, dbSearchTerm, pageable);
+        int segment = position != null ? position.segment() : 0;
+        LocalDateTime updatedAt = position != null ? parseCursorKey(position, LocalDateTime::parse) : KEYSET_MAX_UPDATED_AT;
+        long id = position != null ? position.id() : Long.MAX_VALUE;
+
+        List<GameListItem> content = new ArrayList<>();
+        int lastSegment = segment;
+        boolean hasMore = false;
+
+        while (segment < segments.size()) {
+            int wanted = size - content.size();
+            List<GameListItem> rows = gameRepository.findByStatusesUpdatedBefore(
+                    segments.get(segment), dbSearchTerm, updatedAt, id, PageRequest.ofSize(wanted + 1));
+
+            if (rows.size() > wanted) {
+                content.addAll(rows.subList(0, wanted));
+                if (wanted > 0) {
+                    lastSegment = segment;
+                }
+                hasMore = true;
+                break;
+            }
+
+            content.addAll(rows);
+            if (!rows.isEmpty()) {
+                lastSegment = segment;
+            }
+            segment++;
+            updatedAt = KEYSET_MAX_UPDATED_AT;
+            id = Long.MAX_VALUE;
+        }
+
+        String nextCursor = null;
+        if (hasMore && !content.isEmpty()) {
+            GameListItem last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(lastSegment, last.getUpdatedAt().toString(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, size, nextCursor);
     }
 
-    public List<Game> searchGames(String query)
+    @Transactional(readOnly = true)
+    public CursorPage<WishlistGameForTableDTO> scrollWishlistGamesDashboard(String cursor, int size, String sort, ReleaseFilter releaseFilter)
+    {
+        requirePositiveSize(size);
+
+        String[] sortParts = sort.split(",");
+        if (!"releaseDate".equals(sortParts[0].trim())) {
+            throw new IllegalArgumentException("Cursor mode only supports sorting by releaseDate");
+        }
+        boolean descending = sortParts.length > 1 && "desc".equalsIgnoreCase(sortParts[1].trim());
+
+        LocalDate today = LocalDate.now();
+        LocalDate from = releaseFilter == ReleaseFilter.NOT_RELEASED_ONLY ? today.plusDays(1) : KEYSET_MIN_RELEASE_DATE;
+        LocalDate to = releaseFilter == ReleaseFilter.RELEASED_ONLY ? today : KEYSET_MAX_RELEASE_DATE;
+        // segment 0: games with a release date; segment 1: TBA games, only part of the unfiltered list
+        int segmentCount = releaseFilter == ReleaseFilter.ALL ? 2 : 1;
+
+        KeysetCursor position = KeysetCursor.decode(cursor, segmentCount);
+        int segment = position != null ? position.segment() : 0;
+
+        List<WishlistGameRow> content = new ArrayList<>();
+        int lastSegment = segment;
+        boolean hasMore = false;
+
+        while (segment < segmentCount) {
+            int wanted = size - content.size();
+            Pageable limit = PageRequest.ofSize(wanted + 1);
+            boolean resume = position != null && position.segment() == segment;
+
+            List<WishlistGameRow> rows;
+            if (segment == 0) {
+                LocalDate releaseDate = resume ? parseCursorKey(position, LocalDate::parse) : (descending ? to : from);
+                long id = resume ? position.id() : (descending ? Long.MAX_VALUE : 0L);
+                rows = descending
+                        ? gameRepository.findByStatusReleasedBefore(GameStatus.WISHLIST, from, to, releaseDate, id, limit)
+                        : gameRepository.findByStatusReleasedAfter(GameStatus.WISHLIST, from, to, releaseDate, id, limit);
+            } else {
+                rows = gameRepository.findByStatusUnreleasedAfter(GameStatus.WISHLIST, resume ? position.id() : 0L, limit);
+            }
+
+            if (rows.size() > wanted) {
+                content.addAll(rows.subList(0, wanted));
+                if (wanted > 0) {
+                    lastSegment = segment;
+                }
+                hasMore = true;
+                break;
+            }
+
+            content.addAll(rows);
+            if (!rows.isEmpty()) {
+                lastSegment = segment;
+            }
+            segment++;
+        }
+
+        String nextCursor = null;
+        if (hasMore && !content.isEmpty()) {
+            WishlistGameRow last = content.get(content.size() - 1);
+            String key = last.getReleaseDate() != null ? last.getReleaseDate().toString() : "";
+            nextCursor = new KeysetCursor(lastSegment, key, last.getId()).encode();
+        }
+
+        List<WishlistGameForTableDTO> dtos = content.stream()
+                .map(row -> WishlistGameForTableDTO.fromRow(row, today))
+                .toList();
+        return new CursorPage<>(dtos, size, nextCursor);
+    }
+
+    private static <T> T parseCursorKey(KeysetCursor position, Function<String, T> parser)
     {
         try {
-            String response = webClient.get()
-                    .uri(rawgApiUrl + "/games?key=" + rawgApiKey + "&search=" + query + "&page_size=8")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
+            return parser.apply(position.key());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
 
-            return parseGamesFromResponse(response);
-        } catch (Exception e) {
-            System.err.println("Error searching games: " + e.getMessage());
-            return new ArrayList<>();
+    private static void requirePositiveSize(int size)
+    {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
         }
     }
 
+    // Matches, count and ordering come from the title index; only the page rows are read from the DB
+    private Optional<Page<GameListItem>> searchByTitleIndex(String searchTerm, Predicate<GameStatus> statusFilter,
+                                                            Comparator<TitleTrigramIndex.Match> order, Pageable pageable)
+    {
+        List<TitleTrigramIndex.Match> matches = titleIndex.search(searchTerm, statusFilter);
+        if (matches == null) {
+            return Optional.empty();
+        }
+
+        matches.sort(order);
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Long> pageIds = matches.subList(from, to).stream()
+                .map(TitleTrigramIndex.Match::id)
+                .toList();
+
+        Map<Long, GameListItem> rows = new HashMap<>();
+        if (!pageIds.isEmpty()) {
+            for (GameListItem item : gameRepository.findListItemsByIds(pageIds)) {
+                rows.put(item.getId(), item);
+            }
+        }
+
+        List<GameListItem> content = pageIds.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return Optional.of(new PageImpl<>(content, pageable, matches.size()));
+    }
+
+    // Failures propagate (RawgUnavailableException when RAWG is down); the RAWG deadline bounds the join
+    public List<SearchResult> searchGames(String query)
+    {
+        try {
+            List<Game> games = searchCache.get(normalizeQuery(query)).join();
+            return withOwnership(games != null ? games : List.of());
+        } catch (CompletionException e) {
+            log.warn("Error searching games: {}", e.getMessage());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public Mono<List<SearchResult>> searchGamesReactive(String query)
+    {
+        // suppressCancel: the cache future is shared by every caller searching the same query
+        return Mono.fromFuture(() -> searchCache.get(normalizeQuery(query)), true)
+                .defaultIfEmpty(List.of())
+                // the in-memory lookup is fine on any thread, the fallback query before it's loaded is not
+                .flatMap(games -> ownershipIndex.isReady()
+                        ? Mono.just(withOwnership(games))
+                        : Mono.fromCallable(() -> withOwnership(games)).subscribeOn(jpaScheduler))
+                .doOnError(e -> log.warn("Error searching games: {}", e.getMessage()));
+    }
+
+    // Cached RAWG results + the current local status of each, resolved in one lookup for the whole list
+    private List<SearchResult> withOwnership(List<Game> games)
+    {
+        List<Long> rawgIds = games.stream()
+                .map(Game::getRawgId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, GameStatus> owned = ownershipIndex.lookup(rawgIds);
+
+        return games.stream()
+                .map(game -> SearchResult.of(game, owned.get(game.getRawgId())))
+                .toList();
+    }
+
+    public LibraryStats getLibraryStats()
+    {
+        return libraryStatistics.getStats();
+    }
+
+    public Optional<String> getImageUrl(Long id)
+    {
+        return gameRepository.findImageUrlById(id);
+    }
+
+    public SearchCacheStats getSearchCacheStats()
+    {
+        CacheStats stats = searchCache.synchronous().stats();
+        return new SearchCacheStats(
+                searchCache.synchronous().estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+
     public GameSaveResult saveGameToDatabase(Long rawgId, GameStatus gameStatus)
     {
         Optional<Game> existingGame = gameRepository.findByRawgId(rawgId);
         if (existingGame.isPresent()) {
-            return new GameSaveResult(
-                    existingGame.get(),
-                    true,
-                    "Game already exists in the library"
-            );
+            return alreadyExists(existingGame.get());
+        }
+
+        CompletableFuture<GameSaveResult> pending = new CompletableFuture<>();
+        CompletableFuture<GameSaveResult> inFlight = pendingAdds.putIfAbsent(rawgId, pending);
+        if (inFlight != null) {
+            // Same game is being added right now - wait for that request instead of fetching RAWG again
+            return alreadyExists(awaitPendingAdd(inFlight).getGame());
         }
 
         try {
-            String response = webClient.get()
-                    .uri(rawgApiUrl + "/games/" + rawgId + "?key=" + rawgApiKey)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            if (response != null) {
-                Game game = parseGameFromRawg(response, rawgId);
-                if (game != null) {
-                    game.setStatus(gameStatus);
-                    Game savedGame = gameRepository.save(game);
-                    return new GameSaveResult(
-                            savedGame,
-                            false,
-                            "Game added successfully"
-                    );
-                }
-            }
+            GameSaveResult result = fetchAndInsertGame(rawgId, gameStatus);
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingAdds.remove(rawgId, pending);
+        }
+    }
+
+    private GameSaveResult fetchAndInsertGame(Long rawgId, GameStatus gameStatus)
+    {
+        Game game;
+        try {
+            game = fetchGame(rawgId).block();
+        } catch (RawgUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("Error fetching game: " + e.getMessage());
+            log.warn("Error fetching game {}: {}", rawgId, e.getMessage());
             throw new RuntimeException("Error adding game to library");
         }
 
-        throw new RuntimeException("Game not found with ID: " + rawgId);
+        if (game == null) {
+            throw new RuntimeException("Game not found with ID: " + rawgId);
+        }
+
+        return insertFetchedGame(rawgId, game, gameStatus);
     }
 
+    private GameSaveResult insertFetchedGame(Long rawgId, Game game, GameStatus gameStatus)
+    {
+        boolean inserted;
+        try {
+            inserted = gameRepository.insertIfAbsent(
+                    rawgId,
+                    game.getTitle(),
+                    game.getReleaseDate(),
+                    game.getImageUrl(),
+                    gameStatus.name(),
+                    LocalDateTime.now()
+            ) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another writer inserted the same rawgId between MERGE's match and insert
+            inserted = false;
+        }
 
-    public void deleteGame(Long gameId)
+        Game savedGame = gameRepository.findByRawgId(rawgId)
+                .orElseThrow(() -> new RuntimeException("Game not found with ID: " + rawgId));
+
+        if (inserted) {
+            eventPublisher.publishEvent(GameChangedEvent.inserted(GameSnapshot.of(savedGame)));
+        }
+
+        return inserted
+                ? new GameSaveResult(savedGame, false, "Game added successfully")
+                : alreadyExists(savedGame);
+    }
+
+    public Mono<GameSaveResult> saveGameToDatabaseReactive(Long rawgId, GameStatus gameStatus)
     {
-        gameRepository.deleteById(gameId);
+        return Mono.fromCallable(() -> gameRepository.findByRawgId(rawgId))
+                .subscribeOn(jpaScheduler)
+                .flatMap(existingGame -> existingGame
+                        .map(game -> Mono.just(alreadyExists(game)))
+                        .orElseGet(() -> addOrJoinPending(rawgId, gameStatus)));
     }
 
-    public Game updateGame(Long id, GameUpdateRequest updateRequest)
+    // The add runs to completion as one shared future whoever is still waiting for it: every caller, the one that
+    // started it included, only joins it with suppressCancel, so a disconnecting client cancels nobody else's add
+    private Mono<GameSaveResult> addOrJoinPending(Long rawgId, GameStatus gameStatus)
     {
-        Game existingGame = gameRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Game not found with id: " + id));
+        CompletableFuture<GameSaveResult> pending = new CompletableFuture<>();
+        CompletableFuture<GameSaveResult> inFlight = pendingAdds.putIfAbsent(rawgId, pending);
+        if (inFlight != null) {
+            return Mono.fromFuture(inFlight, true).map(result -> alreadyExists(result.getGame()));
+        }
 
-        existingGame.setPlatform(updateRequest.getPlatform());
-        existingGame.setStatus(updateRequest.getStatus());
-        existingGame.setRating(updateRequest.getRating());
-        existingGame.setNotes(updateRequest.getNotes());
-        existingGame.setCompletedAt(updateRequest.getCompletedAt());
-        existingGame.setUpdatedAt(LocalDateTime.now());
-        existingGame.setFavourite(updateRequest.getFavourite());
+        fetchGame(rawgId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Game not found with ID: " + rawgId)))
+                .publishOn(jpaScheduler)
+                .map(game -> insertFetchedGame(rawgId, game, gameStatus))
+                .toFuture()
+                .whenComplete((result, error) -> {
+                    pendingAdds.remove(rawgId, pending);
+                    if (error != null) {
+                        pending.completeExceptionally(error);
+                    } else {
+                        pending.complete(result);
+                    }
+                });
 
-        return gameRepository.save(existingGame);
+        return Mono.fromFuture(pending, true);
     }
 
-    // -- RAWG Helpers
-
-    private Game parseGameFromRawg(String response, Long rawgId)
+    private GameSaveResult awaitPendingAdd(CompletableFuture<GameSaveResult> pending)
     {
         try {
-            JsonNode gameNode = objectMapper.readTree(response);
-            Game game = createGameFromRAWGResponse(gameNode);
-            if (game != null) {
-                game.setRawgId(rawgId);
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-            return game;
-        } catch (Exception e) {
-            System.err.println("Error parsing game response: " + e.getMessage());
-            return null;
+            throw e;
         }
     }
 
-    private List<Game> parseGamesFromResponse(String response)
+    private static GameSaveResult alreadyExists(Game game)
     {
-        List<Game> games = new ArrayList<>();
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode results = root.get("results");
-
-            if (results != null && results.isArray()) {
-                for (JsonNode gameNode : results) {
-                    Game game = createGameFromRAWGResponse(gameNode);
-                    if (game != null) {
-                        games.add(game);
-                    }
+        return new GameSaveResult(
+                game,
+                true,
+                "Game already exists in the library"
+        );
+    }
+
+
+    public BulkImportResult importGames(List<Long> rawgIds, GameStatus gameStatus)
+    {
+        List<Long> distinctIds = rawgIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, BulkImportItem> items = new HashMap<>();
+
+        Set<Long> existingIds = new HashSet<>();
+        for (List<Long> chunk : partition(distinctIds, importBatchSize)) {
+            existingIds.addAll(gameRepository.findExistingRawgIds(chunk));
+        }
+        for (Long rawgId : existingIds) {
+            items.put(rawgId, new BulkImportItem(rawgId, BulkImportOutcome.ALREADY_EXISTS, null, "Game already exists in the library"));
+        }
+
+        List<Long> missingIds = distinctIds.stream()
+                .filter(rawgId -> !existingIds.contains(rawgId))
+                .toList();
+
+        // RAWG fetches run concurrently (bounded); batches are persisted on the calling thread as they fill up
+        Iterable<List<FetchedGame>> batches = Flux.fromIterable(missingIds)
+                .flatMap(this::fetchForImport, importConcurrency)
+                .buffer(importBatchSize)
+                .toIterable();
+
+        for (List<FetchedGame> batch : batches) {
+            List<Game> games = new ArrayList<>();
+            for (FetchedGame fetched : batch) {
+                if (fetched.game() != null) {
+                    fetched.game().setStatus(gameStatus);
+                    games.add(fetched.game());
+                } else {
+                    items.put(fetched.rawgId(), fetched.failure());
                 }
             }
-        } catch (Exception e) {
-            System.err.println("Error parsing games response: " + e.getMessage());
+            persistImportBatch(games, items);
         }
-        return games;
+
+        List<BulkImportItem> ordered = distinctIds.stream()
+                .map(items::get)
+                .toList();
+        return new BulkImportResult(ordered);
     }
 
-    private Game createGameFromRAWGResponse(JsonNode gameNode)
+    private Mono<FetchedGame> fetchForImport(Long rawgId)
     {
-        try {
-            Game game = new Game();
+        return fetchGame(rawgId)
+                .map(game -> new FetchedGame(rawgId, game, null))
+                .defaultIfEmpty(new FetchedGame(rawgId, null,
+                        new BulkImportItem(rawgId, BulkImportOutcome.NOT_FOUND, null, "Game not found with ID: " + rawgId)))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(new FetchedGame(rawgId, null,
+                        new BulkImportItem(rawgId, BulkImportOutcome.NOT_FOUND, null, "Game not found with ID: " + rawgId))))
+                .onErrorResume(e -> Mono.just(new FetchedGame(rawgId, null,
+                        new BulkImportItem(rawgId, BulkImportOutcome.FAILED, null, "Error fetching game: " + e.getMessage()))));
+    }
+
+    private void persistImportBatch(List<Game> games, Map<Long, BulkImportItem> items)
+    {
+        if (games.isEmpty()) {
+            return;
+        }
 
-            if (gameNode.has("id")) {
-                game.setRawgId(gameNode.get("id").asLong());
+        try {
+            int[] counts = gameRepository.insertIfAbsentBatch(games);
+            List<Long> insertedRawgIds = new ArrayList<>();
+            for (int i = 0; i < games.size(); i++) {
+                Game game = games.get(i);
+                boolean inserted = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+                if (inserted) {
+                    insertedRawgIds.add(game.getRawgId());
+                }
+                items.put(game.getRawgId(), inserted
+                        ? new BulkImportItem(game.getRawgId(), BulkImportOutcome.IMPORTED, game.getTitle(), "Game added successfully")
+                        : new BulkImportItem(game.getRawgId(), BulkImportOutcome.ALREADY_EXISTS, game.getTitle(), "Game already exists in the library"));
             }
 
-            if (gameNode.has("name")) {
-                game.setTitle(gameNode.get("name").asText());
+            if (!insertedRawgIds.isEmpty()) {
+                for (GameSnapshot inserted : gameRepository.findSnapshotsByRawgIds(insertedRawgIds)) {
+                    eventPublisher.publishEvent(GameChangedEvent.inserted(inserted));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("Error importing games batch", e);
+            for (Game game : games) {
+                items.put(game.getRawgId(), new BulkImportItem(game.getRawgId(), BulkImportOutcome.FAILED, game.getTitle(), "Error saving game"));
             }
+        }
+    }
 
-            if (gameNode.has("released") && !gameNode.get("released").isNull()) {
-                String rawDate = gameNode.get("released").asText();
+    private static <T> List<List<T>> partition(List<T> list, int size)
+    {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += size) {
+            chunks.add(list.subList(i, Math.min(i + size, list.size())));
+        }
+        return chunks;
+    }
 
-                try {
-                    // RAWG typically uses "yyyy-MM-dd"
-                    LocalDate releaseDate = LocalDate.parse(rawDate, DateTimeFormatter.ISO_LOCAL_DATE);
-                    game.setReleaseDate(releaseDate);
-                } catch (Exception e) {
-                    System.err.println("Error parsing releaseDate: " + rawDate);
-                }
+    private record FetchedGame(Long rawgId, Game game, BulkImportItem failure) {}
+
+    // -- Batch update / delete
+
+    public BatchResult batchUpdate(BatchUpdateRequest request)
+    {
+        if (!request.hasChanges()) {
+            throw new IllegalArgumentException("Nothing to change: set status, platform and/or favourite");
+        }
+        GameSelection selection = request.getSelect();
+        validateSelection(selection);
+        LocalDateTime now = LocalDateTime.now();
+
+        // One transaction: lock the selection, then a single UPDATE over the same rows. Events only go out once it
+        // committed, and the locked rows can't have changed in between, so "after" follows from "before"
+        BatchWrite write = transactionTemplate.execute(tx -> {
+            List<GameSnapshot> selected = lockSelection(selection);
+            if (selected.isEmpty()) {
+                return new BatchWrite(selected, 0);
+            }
+            int affected;
+            if (selection.hasIds()) {
+                affected = gameRepository.updateByIds(selected.stream().map(GameSnapshot::getId).toList(),
+                        request.getStatus(), request.getPlatform(), request.getFavourite(), now);
+            } else if (selection.hasReleaseWindow()) {
+                affected = gameRepository.updateByStatusReleasedBetween(selection.getStatus(),
+                        releasedFrom(selection), releasedTo(selection),
+                        request.getStatus(), request.getPlatform(), request.getFavourite(), now);
+            } else {
+                affected = gameRepository.updateByStatus(selection.getStatus(),
+                        request.getStatus(), request.getPlatform(), request.getFavourite(), now);
             }
+            return new BatchWrite(selected, affected);
+        });
+
+        for (GameSnapshot before : write.selected()) {
+            GameSnapshot after = new GameSnapshot(before.getId(), before.getRawgId(), before.getTitle(),
+                    request.getStatus() != null ? request.getStatus() : before.getStatus(), before.getRating(),
+                    request.getFavourite() != null ? request.getFavourite() : before.isFavourite(),
+                    before.getCompletedAt(), before.getReleaseDate(), now);
+            eventPublisher.publishEvent(GameChangedEvent.updated(before, after));
+        }
+        return new BatchResult(write.selected().size(), write.affected());
+    }
+
+    public BatchResult batchDelete(GameSelection selection)
+    {
+        validateSelection(selection);
 
-            if (gameNode.has("background_image") && !gameNode.get("background_image").isNull()) {
-                game.setImageUrl(gameNode.get("background_image").asText());
+        BatchWrite write = transactionTemplate.execute(tx -> {
+            List<GameSnapshot> selected = lockSelection(selection);
+            if (selected.isEmpty()) {
+                return new BatchWrite(selected, 0);
             }
+            int affected;
+            if (selection.hasIds()) {
+                affected = gameRepository.deleteByIds(selected.stream().map(GameSnapshot::getId).toList());
+            } else if (selection.hasReleaseWindow()) {
+                affected = gameRepository.deleteByStatusReleasedBetween(selection.getStatus(),
+                        releasedFrom(selection), releasedTo(selection));
+            } else {
+                affected = gameRepository.deleteByStatus(selection.getStatus());
+            }
+            return new BatchWrite(selected, affected);
+        });
+
+        for (GameSnapshot deleted : write.selected()) {
+            eventPublisher.publishEvent(GameChangedEvent.deleted(deleted));
+        }
+        return new BatchResult(write.selected().size(), write.affected());
+    }
+
+    private record BatchWrite(List<GameSnapshot> selected, int affected) {}
+
+    private static void validateSelection(GameSelection selection)
+    {
+        if (selection == null || (!selection.hasIds() && selection.getStatus() == null)) {
+            throw new IllegalArgumentException("Select games by ids and/or status");
+        }
+        if (!selection.hasIds() && selection.hasReleaseWindow() && selection.getStatus() == null) {
+            throw new IllegalArgumentException("A release window needs a status");
+        }
+    }
+
+    // Called inside the batch transaction: the rows stay locked until the write commits
+    private List<GameSnapshot> lockSelection(GameSelection selection)
+    {
+        if (!selection.hasIds()) {
+            List<Game> games = selection.hasReleaseWindow()
+                    ? gameRepository.lockByStatusReleasedBetween(selection.getStatus(), releasedFrom(selection), releasedTo(selection))
+                    : gameRepository.lockByStatus(selection.getStatus());
+            return games.stream().map(GameSnapshot::of).toList();
+        }
+
+        List<Long> ids = selection.getIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return gameRepository.lockByIds(ids).stream()
+                .map(GameSnapshot::of)
+                .filter(game -> matchesFilter(game, selection))
+                .toList();
+    }
+
+    private static LocalDate releasedFrom(GameSelection selection)
+    {
+        return selection.getReleasedFrom() != null ? selection.getReleasedFrom() : KEYSET_MIN_RELEASE_DATE;
+    }
+
+    private static LocalDate releasedTo(GameSelection selection)
+    {
+        return selection.getReleasedTo() != null ? selection.getReleasedTo() : KEYSET_MAX_RELEASE_DATE;
+    }
+
+    private static boolean matchesFilter(GameSnapshot game, GameSelection selection)
+    {
+        if (selection.getStatus() != null && game.getStatus() != selection.getStatus()) {
+            return false;
+        }
+        if (!selection.hasReleaseWindow()) {
+            return true;
+        }
+        LocalDate releaseDate = game.getReleaseDate();
+        return releaseDate != null
+                && (selection.getReleasedFrom() == null || !releaseDate.isBefore(selection.getReleasedFrom()))
+                && (selection.getReleasedTo() == null || !releaseDate.isAfter(selection.getReleasedTo()));
+    }
+
+    public void deleteGame(Long gameId)
+    {
+        gameRepository.findById(gameId).ifPresent(game -> {
+            GameSnapshot deleted = GameSnapshot.of(game);
+            gameRepository.delete(game);
+            eventPublisher.publishEvent(GameChangedEvent.deleted(deleted));
+        });
+    }
+
+    public Game updateGame(Long id, GameUpdateRequest updateRequest)
+    {
+        Game existingGame = gameRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Game not found with id: " + id));
+        GameSnapshot before = GameSnapshot.of(existingGame);
+
+        existingGame.setPlatform(updateRequest.getPlatform());
+        existingGame.setStatus(updateRequest.getStatus());
+        existingGame.setRating(updateRequest.getRating());
+        existingGame.setNotes(updateRequest.getNotes());
+        existingGame.setCompletedAt(updateRequest.getCompletedAt());
+        existingGame.setUpdatedAt(LocalDateTime.now());
+        existingGame.setFavourite(updateRequest.getFavourite());
+
+        Game savedGame = gameRepository.save(existingGame);
+        eventPublisher.publishEvent(GameChangedEvent.updated(before, GameSnapshot.of(savedGame)));
+        return savedGame;
+    }
+
+    // -- RAWG Helpers
+
+    // also used by WishlistRefresher
+    Mono<Game> fetchGame(Long rawgId)
+    {
+        return webClient.get()
+                .uri(rawgApiUrl + "/games/{id}?key={key}", rawgId, rawgApiKey)
+                .attribute(RawgClientMetrics.KIND_ATTRIBUTE, RawgClientMetrics.KIND_DETAIL)
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .mapNotNull(body -> parseGameFromRawg(body, rawgId))
+                .transform(call -> rawgResilience.apply(call, RawgClientMetrics.KIND_DETAIL));
+    }
 
+    private Mono<List<Game>> fetchSearchResults(String normalizedQuery)
+    {
+        return webClient.get()
+                .uri(rawgApiUrl + "/games?key={key}&search={search}&page_size=8", rawgApiKey, normalizedQuery)
+                .attribute(RawgClientMetrics.KIND_ATTRIBUTE, RawgClientMetrics.KIND_SEARCH)
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(body -> List.copyOf(parseGamesFromResponse(body)))
+                .transform(call -> rawgResilience.apply(call, RawgClientMetrics.KIND_SEARCH));
+    }
+
+    private static String normalizeQuery(String query)
+    {
+        if (query == null) {
+            return "";
+        }
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private Game parseGameFromRawg(DataBuffer body, Long rawgId)
+    {
+        try (InputStream in = body.asInputStream(true)) {
+            Game game = rawgParser.parseGame(in);
+            if (game != null) {
+                game.setRawgId(rawgId);
+            }
             return game;
         } catch (Exception e) {
-            System.err.println("Error creating game from node: " + e.getMessage());
+            log.warn("Error parsing game response for {}: {}", rawgId, e.getMessage());
             return null;
         }
     }
+
+    private List<Game> parseGamesFromResponse(DataBuffer body)
+    {
+        try (InputStream in = body.asInputStream(true)) {
+            return rawgParser.parseGames(in);
+        } catch (Exception e) {
+            log.warn("Error parsing games response: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.matkon.gamelog.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page: which ordered segment it was in, its sort key
+ * (an ISO date or date-time) and its id as tie-breaker. Serialised as URL-safe base64 so clients
+ * treat it as opaque.
+ */
+public record KeysetCursor(int segment, String key, long id)
+{
+    private static final String VERSION = "v1";
+
+    public String encode()
+    {
+        String raw = VERSION + "|" + segment + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null/blank = first page; segment must be one of the segmentCount segments of the list being paged
+    public static KeysetCursor decode(String token, int segmentCount)
+    {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        KeysetCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            cursor = new KeysetCursor(Integer.parseInt(parts[1]), parts[2], Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+
+        if (cursor.segment() < 0 || cursor.segment() >= segmentCount || cursor.id() < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return cursor;
+    }
+}
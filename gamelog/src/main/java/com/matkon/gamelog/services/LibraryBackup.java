@@ -0,0 +1,194 @@
+package com.matkon.gamelog.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.matkon.gamelog.data.BackupFormat;
+import com.matkon.gamelog.data.GameBackupRow;
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.LibraryImportResult;
+import com.matkon.gamelog.repos.GameRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Whole-library export and import as NDJSON or CSV. Both directions hold one row (export) or one insert batch
+ * (import) at a time, so heap use doesn't grow with the library. Import is insert-if-absent on rawgId: games that
+ * are already there are left alone, and re-running an interrupted import picks up where it stopped.
+ */
+@Service
+public class LibraryBackup
+{
+    private final GameRepository gameRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${gamelog.backup.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${gamelog.backup.batch-size:1000}")
+    private int batchSize;
+
+    public LibraryBackup(GameRepository gameRepository, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher)
+    {
+        this.gameRepository = gameRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Rows go from the JDBC cursor to out one by one; the writer buffer is the only thing that accumulates
+    @Transactional(readOnly = true)
+    public long export(BackupFormat format, OutputStream out) throws IOException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowSink sink = format == BackupFormat.CSV ? csvSink(writer) : ndjsonSink(writer);
+
+        long[] count = {0};
+        try {
+            gameRepository.forEachBackupRow(fetchSize, row -> {
+                try {
+                    sink.write(row);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // typically the client went away
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+
+    public LibraryImportResult importFrom(BackupFormat format, InputStream in) throws IOException
+    {
+        ImportBatch batch = new ImportBatch();
+
+        if (format == BackupFormat.CSV) {
+            GameCsv.Reader csv = new GameCsv.Reader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            GameBackupRow row;
+            while ((row = nextOrFlush(csv, batch)) != null) {
+                batch.add(row);
+            }
+        } else {
+            try (MappingIterator<GameBackupRow> rows = objectMapper.readerFor(GameBackupRow.class).readValues(in)) {
+                while (rows.hasNextValue()) {
+                    batch.add(rows.nextValue());
+                }
+            } catch (JsonProcessingException e) {
+                batch.flush();
+                throw new IllegalArgumentException("Invalid NDJSON after " + batch.read + " rows (those were imported): "
+                        + e.getOriginalMessage(), e);
+            }
+        }
+
+        batch.flush();
+        return new LibraryImportResult(batch.read, batch.imported, batch.alreadyExisted, batch.skipped);
+    }
+
+    private static GameBackupRow nextOrFlush(GameCsv.Reader csv, ImportBatch batch) throws IOException
+    {
+        try {
+            return csv.next();
+        } catch (IllegalArgumentException e) {
+            batch.flush();
+            throw new IllegalArgumentException(e.getMessage() + " (rows before it were imported)", e);
+        }
+    }
+
+    private interface RowSink
+    {
+        void write(GameBackupRow row) throws IOException;
+    }
+
+    private static RowSink csvSink(Writer writer) throws IOException
+    {
+        GameCsv.writeHeader(writer);
+        return row -> GameCsv.writeRow(writer, row);
+    }
+
+    // One JSON object per line. json.flush() only hands the row to the BufferedWriter, the response itself is
+    // flushed as the buffers fill
+    private RowSink ndjsonSink(Writer writer) throws IOException
+    {
+        ObjectWriter rowWriter = objectMapper.writerFor(GameBackupRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        json.setRootValueSeparator(null);
+
+        return row -> {
+            rowWriter.writeValue(json, row);
+            json.writeRaw('\n');
+            json.flush();
+        };
+    }
+
+    private class ImportBatch
+    {
+        private final List<GameBackupRow> rows = new ArrayList<>();
+        private long read;
+        private long imported;
+        private long alreadyExisted;
+        private long skipped;
+
+        void add(GameBackupRow row)
+        {
+            read++;
+            if (row == null || row.getRawgId() == null || row.getTitle() == null || row.getTitle().isBlank()) {
+                skipped++;
+                return;
+            }
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush()
+        {
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            int[] counts = gameRepository.insertBackupRows(rows);
+            List<Long> insertedRawgIds = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    insertedRawgIds.add(rows.get(i).getRawgId());
+                }
+            }
+            imported += insertedRawgIds.size();
+            alreadyExisted += rows.size() - insertedRawgIds.size();
+            rows.clear();
+
+            if (!insertedRawgIds.isEmpty()) {
+                for (GameSnapshot inserted : gameRepository.findSnapshotsByRawgIds(insertedRawgIds)) {
+                    eventPublisher.publishEvent(GameChangedEvent.inserted(inserted));
+                }
+            }
+        }
+    }
+}
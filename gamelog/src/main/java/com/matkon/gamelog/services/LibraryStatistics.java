@@ -0,0 +1,227 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.LibraryStats;
+import com.matkon.gamelog.data.LibraryStatsRow;
+import com.matkon.gamelog.repos.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Library-wide aggregates (games per status, average rating, favourites, completions per month) kept in memory.
+ * Seeded by one GROUP BY at startup, then moved by the deltas of each {@link GameChangedEvent}, so reading them
+ * doesn't depend on the library size. A periodic reconciliation re-runs the GROUP BY and replaces the
+ * aggregates if they drifted.
+ */
+@Component
+public class LibraryStatistics
+{
+    private static final Logger log = LoggerFactory.getLogger(LibraryStatistics.class);
+    private static final int SEED_ATTEMPTS = 3;
+
+    private final GameRepository gameRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Aggregates aggregates = new Aggregates();
+    // bumped by every applied delta, tells reconcile() whether a write raced its query
+    private long changes = 0L;
+
+    public LibraryStatistics(GameRepository gameRepository)
+    {
+        this.gameRepository = gameRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed()
+    {
+        for (int attempt = 1; attempt < SEED_ATTEMPTS; attempt++) {
+            if (reconcile()) {
+                return;
+            }
+        }
+        // keeps getting raced by writes: take the last result, the scheduled reconciliation will settle it
+        replace(load());
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event)
+    {
+        lock.lock();
+        try {
+            if (event.getBefore() != null) {
+                aggregates.apply(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                aggregates.apply(event.getAfter(), 1);
+            }
+            changes++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gamelog.statistics.reconcile-interval:PT10M}",
+            initialDelayString = "${gamelog.statistics.reconcile-interval:PT10M}")
+    public void scheduledReconcile()
+    {
+        if (!reconcile()) {
+            log.debug("Library statistics reconciliation skipped, writes happened during the check");
+        }
+    }
+
+    /**
+     * Compares the aggregates with the database and replaces them on a mismatch. Skipped (returns false) when
+     * a write happened while the query ran, since the result can't be told apart from a delta in flight.
+     */
+    public boolean reconcile()
+    {
+        long changesBefore;
+        lock.lock();
+        try {
+            changesBefore = changes;
+        } finally {
+            lock.unlock();
+        }
+
+        Aggregates fresh = load();
+
+        lock.lock();
+        try {
+            if (changes != changesBefore) {
+                return false;
+            }
+            if (!fresh.sameAs(aggregates)) {
+                if (aggregates.total > 0 || changes > 0) {
+                    log.warn("Library statistics drifted from the database, reloading");
+                }
+                aggregates = fresh;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LibraryStats getStats()
+    {
+        lock.lock();
+        try {
+            return aggregates.toStats();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long count(GameStatus status)
+    {
+        lock.lock();
+        try {
+            return aggregates.byStatus[status.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replace(Aggregates fresh)
+    {
+        lock.lock();
+        try {
+            aggregates = fresh;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Aggregates load()
+    {
+        List<LibraryStatsRow> rows = gameRepository.loadLibraryStats();
+        Aggregates loaded = new Aggregates();
+        for (LibraryStatsRow row : rows) {
+            loaded.total += row.getCount();
+            if (row.getStatus() != null) {
+                loaded.byStatus[row.getStatus().ordinal()] += row.getCount();
+            }
+            loaded.favourites += row.getFavourites();
+            loaded.ratingSum += row.getRatingSum();
+            loaded.rated += row.getRatedCount();
+            if (row.getCompletedYear() != null && row.getCompletedMonth() != null) {
+                loaded.completions.merge(YearMonth.of(row.getCompletedYear(), row.getCompletedMonth()), row.getCount(), Long::sum);
+            }
+        }
+        return loaded;
+    }
+
+    private static final class Aggregates
+    {
+        private long total = 0L;
+        private final long[] byStatus = new long[GameStatus.values().length];
+        private long favourites = 0L;
+        private double ratingSum = 0.0;
+        private long rated = 0L;
+        private final TreeMap<YearMonth, Long> completions = new TreeMap<>();
+
+        // sign = 1 adds the game, -1 takes it out
+        void apply(GameSnapshot game, int sign)
+        {
+            total += sign;
+            if (game.getStatus() != null) {
+                byStatus[game.getStatus().ordinal()] += sign;
+            }
+            if (game.isFavourite()) {
+                favourites += sign;
+            }
+            if (game.getRating() != null) {
+                ratingSum += sign * game.getRating();
+                rated += sign;
+            }
+            if (game.getCompletedAt() != null) {
+                YearMonth month = YearMonth.from(game.getCompletedAt());
+                long count = completions.getOrDefault(month, 0L) + sign;
+                if (count > 0) {
+                    completions.put(month, count);
+                } else {
+                    completions.remove(month);
+                }
+            }
+        }
+
+        boolean sameAs(Aggregates other)
+        {
+            return total == other.total
+                    && Arrays.equals(byStatus, other.byStatus)
+                    && favourites == other.favourites
+                    && rated == other.rated
+                    // sums of doubles drift a little when games are added and removed in a different order
+                    && Math.abs(ratingSum - other.ratingSum) < 1e-6
+                    && Objects.equals(completions, other.completions);
+        }
+
+        LibraryStats toStats()
+        {
+            Map<GameStatus, Long> statuses = new EnumMap<>(GameStatus.class);
+            for (GameStatus status : GameStatus.values()) {
+                statuses.put(status, byStatus[status.ordinal()]);
+            }
+
+            Map<String, Long> months = new LinkedHashMap<>();
+            completions.forEach((month, count) -> months.put(month.toString(), count));
+
+            return new LibraryStats(total, statuses, rated > 0 ? ratingSum / rated : null, rated, favourites, months);
+        }
+    }
+}
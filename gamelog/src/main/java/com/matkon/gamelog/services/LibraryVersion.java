@@ -0,0 +1,46 @@
+package com.matkon.gamelog.services;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Library-wide version, bumped on every {@link GameChangedEvent}. The random epoch keeps ETags from one run
+ * from matching after a restart, when the counter starts over.
+ */
+@Component
+public class LibraryVersion
+{
+    private final long epoch = new SecureRandom().nextLong();
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event)
+    {
+        version.incrementAndGet();
+    }
+
+    public long current() {return version.get();}
+
+    /**
+     * Strong ETag for a response built from the library as of {@link #current()} and the given request
+     * parameters. Take it before running the query: a write that races the query then only costs a miss.
+     */
+    public String etag(String resource, Object... parameters)
+    {
+        String key = Long.toHexString(epoch) + "|" + current() + "|" + resource + "|" + Arrays.toString(parameters);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
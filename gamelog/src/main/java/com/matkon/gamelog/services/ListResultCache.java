@@ -0,0 +1,95 @@
+package com.matkon.gamelog.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Results of GameService's paged list queries, keyed on the method, its parameters and the generation of the
+ * GameStatus partitions the query reads. Every {@link GameChangedEvent} bumps the generation of the statuses the
+ * game had before and after the write, so only lists over those partitions stop matching: a library edit leaves
+ * cached wishlist pages alone and the reverse. Entries under an old generation are never read again and age out
+ * of the bounded cache.
+ * <p>
+ * The generation is taken before the query runs, so a write that commits while it runs only costs a miss.
+ */
+@Component
+public class ListResultCache
+{
+    private final AtomicLongArray generations = new AtomicLongArray(GameStatus.values().length);
+    private final Cache<Key, Object> cache;
+
+    private record Key(String method, long generation, List<Object> parameters) {}
+
+    public ListResultCache(@Value("${gamelog.list-cache.max-size:2000}") long maxSize,
+                           @Value("${gamelog.list-cache.expire-after-access:PT10M}") Duration expireAfterAccess,
+                           MeterRegistry meterRegistry)
+    {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gamelog.list");
+    }
+
+    // The query runs on the caller's thread outside the map, never inside Caffeine's compute: a slow query must not
+    // hold the bin lock of unrelated keys, nor pin a virtual thread. Concurrent misses for one key may both query;
+    // exceptions aren't cached
+    @SuppressWarnings("unchecked")
+    public <T> T get(String method, Set<GameStatus> partitions, Supplier<T> query, Object... parameters)
+    {
+        Key key = new Key(method, generation(partitions), Arrays.asList(parameters));
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        T result = query.get();
+        if (result != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    // last, after TitleTrigramIndex: a query that sees the new generation must also see the updated index
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onGameChanged(GameChangedEvent event)
+    {
+        bump(event.getBefore());
+        bump(event.getAfter());
+    }
+
+    // every partition's counter only grows, so the sum changes whenever one of them does
+    private long generation(Set<GameStatus> partitions)
+    {
+        long sum = 0;
+        for (GameStatus status : partitions) {
+            sum += generations.get(status.ordinal());
+        }
+        return sum;
+    }
+
+    private void bump(GameSnapshot game)
+    {
+        if (game != null && game.getStatus() != null) {
+            generations.incrementAndGet(game.getStatus().ordinal());
+        }
+    }
+}
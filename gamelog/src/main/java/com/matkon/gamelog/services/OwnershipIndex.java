@@ -0,0 +1,124 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.OwnershipRow;
+import com.matkon.gamelog.repos.GameRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * rawgId -> status of every game in the database, so RAWG search results can say which of them are already
+ * owned at no per-result cost. Loaded at startup and kept current from {@link GameChangedEvent}s; until the
+ * load has finished, lookups fall back to a single rawgId IN (...) query.
+ */
+@Component
+public class OwnershipIndex
+{
+    private final GameRepository gameRepository;
+
+    @Value("${gamelog.ownership-index.load-batch-size:10000}")
+    private int loadBatchSize;
+
+    // reads are lock-free; the lock orders the load against live updates
+    private final Map<Long, GameStatus> statuses = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // rawgIds written by events while loading - the load's rows for them are older
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private volatile boolean ready = false;
+
+    public OwnershipIndex(GameRepository gameRepository)
+    {
+        this.gameRepository = gameRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load()
+    {
+        long lastId = 0L;
+        List<OwnershipRow> rows;
+        do {
+            rows = gameRepository.findOwnershipRowsAfter(lastId, PageRequest.ofSize(loadBatchSize));
+            lock.lock();
+            try {
+                for (OwnershipRow row : rows) {
+                    if (row.getRawgId() != null && !changedWhileLoading.contains(row.getRawgId())) {
+                        statuses.put(row.getRawgId(), row.getStatus());
+                    }
+                    lastId = row.getId();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } while (rows.size() == loadBatchSize);
+
+        lock.lock();
+        try {
+            changedWhileLoading.clear();
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event)
+    {
+        GameSnapshot game = event.isDelete() ? event.getBefore() : event.getAfter();
+        if (game.getRawgId() == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (event.isDelete()) {
+                statuses.remove(game.getRawgId());
+            } else {
+                statuses.put(game.getRawgId(), game.getStatus());
+            }
+            if (!ready) {
+                changedWhileLoading.add(game.getRawgId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReady() {return ready;}
+
+    // Owned games among rawgIds; the ones not in the result aren't in the database
+    public Map<Long, GameStatus> lookup(Collection<Long> rawgIds)
+    {
+        Map<Long, GameStatus> owned = new HashMap<>();
+        if (rawgIds.isEmpty()) {
+            return owned;
+        }
+
+        if (!ready) {
+            for (OwnershipRow row : gameRepository.findOwnershipByRawgIds(rawgIds)) {
+                owned.put(row.getRawgId(), row.getStatus());
+            }
+            return owned;
+        }
+
+        for (Long rawgId : rawgIds) {
+            GameStatus status = statuses.get(rawgId);
+            if (status != null) {
+                owned.put(rawgId, status);
+            }
+        }
+        return owned;
+    }
+}
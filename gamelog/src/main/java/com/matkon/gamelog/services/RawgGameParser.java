@@ -0,0 +1,122 @@
+package com.matkon.gamelog.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.matkon.gamelog.data.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-streaming reader for RAWG payloads. Only the four fields a {@link Game} needs are decoded,
+ * everything else (descriptions, platforms, stores, ...) is skipped without building a tree.
+ */
+public class RawgGameParser
+{
+    private static final Logger log = LoggerFactory.getLogger(RawgGameParser.class);
+
+    private final JsonFactory jsonFactory;
+
+    public RawgGameParser()
+    {
+        this(new JsonFactory());
+    }
+
+    public RawgGameParser(JsonFactory jsonFactory)
+    {
+        this.jsonFactory = jsonFactory;
+    }
+
+    // GET /games?search=... -> games from the top-level "results" array
+    public List<Game> parseGames(InputStream in) throws IOException
+    {
+        List<Game> games = new ArrayList<>();
+
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return games;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        if (parser.currentToken() == JsonToken.START_OBJECT) {
+                            games.add(readGame(parser));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return games;
+    }
+
+    // GET /games/{id} -> single game object, or null when the body is not an object
+    public Game parseGame(InputStream in) throws IOException
+    {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            return readGame(parser);
+        }
+    }
+
+    private Game readGame(JsonParser parser) throws IOException
+    {
+        Game game = new Game();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "id" -> game.setRawgId(parser.getValueAsLong());
+                case "name" -> game.setTitle(parser.getValueAsString());
+                case "released" -> {
+                    if (value != JsonToken.VALUE_NULL) {
+                        game.setReleaseDate(parseReleaseDate(parser.getValueAsString()));
+                    }
+                }
+                case "background_image" -> {
+                    if (value != JsonToken.VALUE_NULL) {
+                        game.setImageUrl(parser.getValueAsString());
+                    }
+                }
+                default -> {
+                    // not needed
+                }
+            }
+
+            // no-op for scalars, jumps over nested objects/arrays
+            parser.skipChildren();
+        }
+
+        return game;
+    }
+
+    private static LocalDate parseReleaseDate(String rawDate)
+    {
+        try {
+            // RAWG typically uses "yyyy-MM-dd"
+            return LocalDate.parse(rawDate, DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (Exception e) {
+            log.warn("Error parsing releaseDate: {}", rawDate);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.matkon.gamelog.services;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resilience policy wrapped around every RAWG call - all of them are idempotent GETs. Outermost first:
+ * overall deadline, bounded retries with jittered backoff, circuit breaker, bulkhead, per-attempt timeout.
+ * An open breaker or a full bulkhead fails at once instead of piling more load on a struggling upstream;
+ * outages reach the caller as {@link RawgUnavailableException}, other errors (404, 401, ...) unchanged.
+ * <ul>
+ *     <li>resilience4j.circuitbreaker.* / resilience4j.bulkhead.* - state, calls, failure rate, free permits, name rawg</li>
+ *     <li>rawg.client.retries - counter, tag kind</li>
+ *     <li>rawg.client.rejected - counter, tags kind and reason (circuit_open, bulkhead_full)</li>
+ * </ul>
+ */
+@Component
+public class RawgResilience
+{
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    // one attempt, including reading the body
+    @Value("${rawg.client.call-timeout:PT5S}")
+    private Duration callTimeout;
+
+    // all attempts and backoffs together
+    @Value("${rawg.client.deadline:PT12S}")
+    private Duration deadline;
+
+    @Value("${rawg.client.retry.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${rawg.client.retry.backoff:PT0.2S}")
+    private Duration backoff;
+
+    @Value("${rawg.client.retry.max-backoff:PT2S}")
+    private Duration maxBackoff;
+
+    @Value("${rawg.client.retry.jitter:0.5}")
+    private double jitter;
+
+    // same property as the breaker's wait in ResilienceConfig; used as Retry-After while it is open
+    @Value("${rawg.client.circuit-breaker.open-wait:PT30S}")
+    private Duration openWait;
+
+    public RawgResilience(CircuitBreaker rawgCircuitBreaker, Bulkhead rawgBulkhead, MeterRegistry meterRegistry)
+    {
+        this.circuitBreaker = rawgCircuitBreaker;
+        this.bulkhead = rawgBulkhead;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> apply(Mono<T> call, String kind)
+    {
+        return call
+                .timeout(callTimeout)
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                // rejections aren't outages, so they are never retried
+                .retryWhen(Retry.backoff(maxRetries, backoff)
+                        .maxBackoff(maxBackoff)
+                        .jitter(jitter)
+                        .filter(RawgResilience::isOutage)
+                        .doBeforeRetry(signal -> meterRegistry.counter("rawg.client.retries", "kind", kind).increment())
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .timeout(deadline)
+                .onErrorMap(e -> isOutage(e) || isRejection(e), e -> unavailable(e, kind));
+    }
+
+    // What counts against RAWG: no answer in time, no connection, or a 5xx / 429. A 4xx means it is up.
+    public static boolean isOutage(Throwable e)
+    {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    private static boolean isRejection(Throwable e)
+    {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+
+    private RawgUnavailableException unavailable(Throwable e, String kind)
+    {
+        if (e instanceof CallNotPermittedException) {
+            meterRegistry.counter("rawg.client.rejected", "kind", kind, "reason", "circuit_open").increment();
+            return new RawgUnavailableException("RAWG is unavailable, circuit breaker open", openWait, e);
+        }
+        if (e instanceof BulkheadFullException) {
+            meterRegistry.counter("rawg.client.rejected", "kind", kind, "reason", "bulkhead_full").increment();
+            return new RawgUnavailableException("Too many concurrent RAWG requests", Duration.ofSeconds(1), e);
+        }
+        return new RawgUnavailableException("RAWG is unavailable: " + e.getMessage(), Duration.ofSeconds(5), e);
+    }
+}
@@ -0,0 +1,17 @@
+package com.matkon.gamelog.services;
+
+import java.time.Duration;
+
+// RAWG can't serve the call right now (timeout, 5xx / 429, open circuit breaker, full bulkhead); answered with 503
+public class RawgUnavailableException extends RuntimeException
+{
+    private final Duration retryAfter;
+
+    public RawgUnavailableException(String message, Duration retryAfter, Throwable cause)
+    {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {return retryAfter;}
+}
@@ -0,0 +1,588 @@
+package com.matkon.gamelog.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Fixed-size JPEG thumbnails of the game images, kept on disk so each source image is downloaded only once.
+ * A thumbnail is stored under the SHA-256 of its own bytes (blobs/ab/ab12...jpg); a small ref file maps
+ * source URL + size to it. The blobs are bounded by a total size, least recently served go first - an evicted
+ * thumbnail and its refs are removed, and it is simply generated again on the next request. Its file stays for
+ * eviction-grace longer: a response that looked it up just before may not have opened it yet (sendfile opens
+ * the file by name after the controller has returned), and once open, deleting it no longer matters.
+ * <p>
+ * Image URLs can come from a library import, so they are fetched like untrusted input: http(s) only, no hosts
+ * that resolve to loopback / private / link-local addresses (unless allow-private-hosts is set), redirects
+ * followed by hand so every hop is checked, and the pixel count is checked from the header before decoding.
+ */
+@Component
+public class ThumbnailCache
+{
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailCache.class);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+    private static final int MAX_SOURCE_BYTES = 20 * 1024 * 1024;
+    // a little over 8K UHD; the decoded image takes 4 bytes per pixel, whatever the file size
+    private static final long MAX_SOURCE_PIXELS = 36_000_000L;
+    private static final int MAX_REDIRECTS = 5;
+    private static final Duration RENDER_WAIT = Duration.ofSeconds(10);
+    private static final float JPEG_QUALITY = 0.82f;
+
+    static {
+        // encode to memory, not through temp files
+        ImageIO.setUseCache(false);
+    }
+
+    private final Path blobDir;
+    private final Path refDir;
+    private final int width;
+    private final int height;
+    private final long maxBytes;
+    private final HttpClient httpClient;
+    private final boolean allowPrivateHosts;
+    private final Duration evictionGrace;
+    // each decode may hold up to MAX_SOURCE_PIXELS * 4 bytes, so a burst of cache misses is rendered a few at a time
+    private final Semaphore renders;
+
+    // blob hash -> size in access order, eldest = least recently served; blob and ref files only change under the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Long> blobs = new LinkedHashMap<>(16, 0.75f, true);
+    // blob hash -> ref keys pointing at it, removed together with the blob
+    private final Map<String, Set<String>> refsByBlob = new HashMap<>();
+    // evicted blob hash -> System.nanoTime() after which its file is deleted, oldest first
+    private final LinkedHashMap<String, Long> evictedFiles = new LinkedHashMap<>();
+    private long totalBytes = 0L;
+
+    private final Map<String, CompletableFuture<Thumbnail>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong downloads = new AtomicLong();
+
+    public record Thumbnail(Path file, String hash, long size) {}
+
+    @Autowired
+    public ThumbnailCache(
+            @Value("${gamelog.thumbnails.dir:${java.io.tmpdir}/gamelog-thumbnails}") String dir,
+            @Value("${gamelog.thumbnails.width:400}") int width,
+            @Value("${gamelog.thumbnails.height:225}") int height,
+            @Value("${gamelog.thumbnails.max-size:256MB}") DataSize maxSize,
+            @Value("${gamelog.thumbnails.allow-private-hosts:false}") boolean allowPrivateHosts,
+            @Value("${gamelog.thumbnails.eviction-grace:PT1M}") Duration evictionGrace,
+            @Value("${gamelog.thumbnails.max-concurrent-renders:2}") int maxConcurrentRenders) throws IOException
+    {
+        // redirects are followed in download(), each target checked like the original URL
+        this(Path.of(dir), width, height, maxSize.toBytes(), HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build(), allowPrivateHosts, evictionGrace, maxConcurrentRenders);
+    }
+
+    ThumbnailCache(Path dir, int width, int height, long maxBytes, HttpClient httpClient, boolean allowPrivateHosts,
+                   Duration evictionGrace, int maxConcurrentRenders) throws IOException
+    {
+        this.blobDir = dir.resolve("blobs");
+        this.refDir = dir.resolve("refs");
+        this.width = width;
+        this.height = height;
+        this.maxBytes = maxBytes;
+        this.httpClient = httpClient;
+        this.allowPrivateHosts = allowPrivateHosts;
+        this.evictionGrace = evictionGrace;
+        this.renders = new Semaphore(maxConcurrentRenders);
+
+        Files.createDirectories(blobDir);
+        Files.createDirectories(refDir);
+        loadBlobs();
+        loadRefs();
+    }
+
+    public Thumbnail get(String sourceUrl) throws IOException
+    {
+        // the size is part of the key, so changing it doesn't serve the old thumbnails
+        String refKey = sha256((sourceUrl + '|' + width + 'x' + height).getBytes(StandardCharsets.UTF_8));
+        Thumbnail cached = lookup(refKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        // concurrent requests for the same image wait for one download
+        CompletableFuture<Thumbnail> mine = new CompletableFuture<>();
+        CompletableFuture<Thumbnail> pending = inFlight.putIfAbsent(refKey, mine);
+        if (pending != null) {
+            return await(pending);
+        }
+        try {
+            // another request may have finished between the lookup and putIfAbsent
+            Thumbnail created = lookup(refKey);
+            if (created == null) {
+                created = create(sourceUrl, refKey);
+            }
+            mine.complete(created);
+            return created;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(refKey, mine);
+        }
+    }
+
+    public long getDownloads() {return downloads.get();}
+
+    public long getTotalBytes()
+    {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Thumbnail lookup(String refKey) throws IOException
+    {
+        String hash;
+        try {
+            hash = Files.readString(refDir.resolve(refKey), StandardCharsets.US_ASCII).trim();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        Long size;
+        lock.lock();
+        try {
+            // get() moves the blob to the young end
+            size = blobs.get(hash);
+        } finally {
+            lock.unlock();
+        }
+        if (size == null) {
+            // evicted, the stale ref is overwritten when the thumbnail is generated again
+            return null;
+        }
+
+        Path blob = blobPath(hash);
+        try {
+            // keeps the LRU order across restarts
+            Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Could not touch thumbnail {}: {}", hash, e.getMessage());
+        }
+        return new Thumbnail(blob, hash, size);
+    }
+
+    private Thumbnail create(String sourceUrl, String refKey) throws IOException
+    {
+        byte[] jpeg = renderGated(download(sourceUrl));
+        String hash = sha256(jpeg);
+
+        Path tmp = Files.createTempFile(blobDir, "thumb", ".tmp");
+        try {
+            Files.write(tmp, jpeg);
+            Path blob = blobPath(hash);
+            lock.lock();
+            try {
+                Files.createDirectories(blob.getParent());
+                Files.move(tmp, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if (blobs.put(hash, (long) jpeg.length) == null) {
+                    totalBytes += jpeg.length;
+                }
+                // the same thumbnail again: the file just moved into place is live
+                evictedFiles.remove(hash);
+                writeRef(refKey, hash);
+                evict(hash);
+            } finally {
+                lock.unlock();
+            }
+            return new Thumbnail(blob, hash, jpeg.length);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private byte[] download(String sourceUrl) throws IOException
+    {
+        downloads.incrementAndGet();
+        URI uri;
+        try {
+            uri = new URI(sourceUrl);
+        } catch (URISyntaxException e) {
+            throw new IOException("Not a valid image URL: " + sourceUrl, e);
+        }
+
+        HttpResponse<InputStream> response = fetch(uri);
+        for (int redirects = 0; isRedirect(response.statusCode()); redirects++) {
+            response.body().close();
+            String location = response.headers().firstValue("Location")
+                    .orElseThrow(() -> new IOException("Redirect without Location: " + sourceUrl));
+            if (redirects == MAX_REDIRECTS) {
+                throw new IOException("More than " + MAX_REDIRECTS + " redirects: " + sourceUrl);
+            }
+            try {
+                uri = uri.resolve(new URI(location));
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid redirect to " + location + ": " + sourceUrl, e);
+            }
+            response = fetch(uri);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Image request failed with status " + response.statusCode() + ": " + sourceUrl);
+            }
+            byte[] bytes = body.readNBytes(MAX_SOURCE_BYTES + 1);
+            if (bytes.length > MAX_SOURCE_BYTES) {
+                throw new IOException("Image larger than " + MAX_SOURCE_BYTES + " bytes: " + sourceUrl);
+            }
+            return bytes;
+        }
+    }
+
+    private HttpResponse<InputStream> fetch(URI uri) throws IOException
+    {
+        checkHost(uri);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading " + uri);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Not a valid image URL: " + uri, e);
+        }
+    }
+
+    private void checkHost(URI uri) throws IOException
+    {
+        String scheme = uri.getScheme();
+        if (uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+            throw new IOException("Not an http(s) image URL: " + uri);
+        }
+        if (allowPrivateHosts) {
+            return;
+        }
+        for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+            if (isPrivate(address)) {
+                throw new IOException("Image host " + uri.getHost() + " is not a public address: " + address.getHostAddress());
+            }
+        }
+    }
+
+    private static boolean isPrivate(InetAddress address)
+    {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        // IPv6 unique local fc00::/7 and IPv4 shared address space 100.64.0.0/10, which the checks above miss
+        return (bytes.length == 16 && (bytes[0] & 0xfe) == 0xfc)
+                || (bytes.length == 4 && (bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64);
+    }
+
+    private static boolean isRedirect(int status)
+    {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    private byte[] renderGated(byte[] source) throws IOException
+    {
+        try {
+            if (!renders.tryAcquire(RENDER_WAIT.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many thumbnails being rendered");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to render a thumbnail");
+        }
+        try {
+            return render(source);
+        } finally {
+            renders.release();
+        }
+    }
+
+    // Scale to cover width x height, crop the overflow evenly, encode as JPEG
+    private byte[] render(byte[] source) throws IOException
+    {
+        BufferedImage image = decode(source);
+
+        double scale = Math.max((double) width / image.getWidth(), (double) height / image.getHeight());
+        int scaledWidth = (int) Math.ceil(image.getWidth() * scale);
+        int scaledHeight = (int) Math.ceil(image.getHeight() * scale);
+
+        // bilinear only looks at 2x2 pixels, so halve step by step instead of shrinking 1920px to 400px at once
+        while (image.getWidth() / 2 >= scaledWidth && image.getHeight() / 2 >= scaledHeight) {
+            image = resize(image, image.getWidth() / 2, image.getHeight() / 2);
+        }
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(image, (width - scaledWidth) / 2, (height - scaledHeight) / 2, scaledWidth, scaledHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return encodeJpeg(thumbnail);
+    }
+
+    // Dimensions come from the header first: a small file can still declare a huge image
+    private static BufferedImage decode(byte[] source) throws IOException
+    {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image of " + reader.getWidth(0) + "x" + reader.getHeight(0)
+                            + " is over " + MAX_SOURCE_PIXELS + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int targetWidth, int targetHeight)
+    {
+        BufferedImage resized = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException
+    {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Call with the lock held; never evicts the blob just added, even if it alone is over the limit
+    private void evict(String keep) throws IOException
+    {
+        long deleteAfter = System.nanoTime() + evictionGrace.toNanos();
+        Iterator<Map.Entry<String, Long>> eldest = blobs.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            // re-inserted, so a blob evicted twice keeps the later deadline and the order stays by deadline
+            evictedFiles.remove(entry.getKey());
+            evictedFiles.put(entry.getKey(), deleteAfter);
+            Set<String> refKeys = refsByBlob.remove(entry.getKey());
+            if (refKeys != null) {
+                for (String refKey : refKeys) {
+                    Files.deleteIfExists(refDir.resolve(refKey));
+                }
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+        deleteEvictedFiles();
+    }
+
+    // Call with the lock held
+    private void deleteEvictedFiles() throws IOException
+    {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Long>> oldest = evictedFiles.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, Long> entry = oldest.next();
+            if (now - entry.getValue() < 0) {
+                break;
+            }
+            Files.deleteIfExists(blobPath(entry.getKey()));
+            oldest.remove();
+        }
+    }
+
+    // Call with the lock held
+    private void writeRef(String refKey, String hash) throws IOException
+    {
+        Path tmp = Files.createTempFile(refDir, "ref", ".tmp");
+        try {
+            Files.writeString(tmp, hash, StandardCharsets.US_ASCII);
+            Files.move(tmp, refDir.resolve(refKey), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        refsByBlob.computeIfAbsent(hash, h -> new HashSet<>()).add(refKey);
+    }
+
+    // Rebuilds the LRU from the blobs left by the previous run, oldest modification first
+    private void loadBlobs() throws IOException
+    {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(blobDir)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+
+        record Found(Path path, long size, long modified) {}
+        List<Found> found = files.stream()
+                .map(path -> {
+                    try {
+                        return new Found(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .sorted(Comparator.comparingLong(Found::modified))
+                .toList();
+
+        lock.lock();
+        try {
+            for (Found file : found) {
+                String name = file.path().getFileName().toString();
+                if (!name.endsWith(".jpg")) {
+                    // leftover temp file of an interrupted write
+                    Files.deleteIfExists(file.path());
+                    continue;
+                }
+                blobs.put(name.substring(0, name.length() - ".jpg".length()), file.size());
+                totalBytes += file.size();
+            }
+            evict(null);
+        } finally {
+            lock.unlock();
+        }
+        log.info("Thumbnail cache: {} thumbnails, {} bytes in {}", blobs.size(), totalBytes, blobDir);
+    }
+
+    // Indexes the refs of the loaded blobs; refs to blobs that are gone and temp files are deleted
+    private void loadRefs() throws IOException
+    {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(refDir)) {
+            files = list.filter(Files::isRegularFile).toList();
+        }
+
+        lock.lock();
+        try {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String hash = name.endsWith(".tmp") ? null : Files.readString(file, StandardCharsets.US_ASCII).trim();
+                if (hash == null || !blobs.containsKey(hash)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                refsByBlob.computeIfAbsent(hash, h -> new HashSet<>()).add(name);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path blobPath(String hash)
+    {
+        return blobDir.resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    private static String sha256(byte[] bytes)
+    {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Thumbnail await(CompletableFuture<Thumbnail> pending) throws IOException
+    {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a thumbnail");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.GameTitleRow;
+import com.matkon.gamelog.repos.GameRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory trigram index over Game.title, so substring search doesn't need a LIKE '%..%' table scan.
+ * Besides the trigram postings it keeps status and updatedAt per game, which is enough to filter,
+ * count and order matches without the database - only the rows of the requested page are loaded.
+ */
+@Component
+public class TitleTrigramIndex
+{
+    private final GameRepository gameRepository;
+
+    @Value("${gamelog.title-index.load-batch-size:10000}")
+    private int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    // ids written or deleted by events while loading - the load's rows for them are older
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private volatile boolean ready = false;
+
+    public TitleTrigramIndex(GameRepository gameRepository)
+    {
+        this.gameRepository = gameRepository;
+    }
+
+    public record Match(Long id, GameStatus status, LocalDateTime updatedAt) {}
+
+    private record Entry(String title, GameStatus status, LocalDateTime updatedAt) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build()
+    {
+        long lastId = 0L;
+        List<GameTitleRow> rows;
+        do {
+            rows = gameRepository.findTitleRowsAfter(lastId, PageRequest.ofSize(loadBatchSize));
+            lock.writeLock().lock();
+            try {
+                for (GameTitleRow row : rows) {
+                    if (!changedWhileLoading.contains(row.getId())) {
+                        putLocked(row.getId(), row.getTitle(), row.getStatus(), row.getUpdatedAt());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!rows.isEmpty()) {
+                lastId = rows.get(rows.size() - 1).getId();
+            }
+        } while (rows.size() == loadBatchSize);
+
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {return ready;}
+
+    // kept current by GameService's change events; ahead of ListResultCache, whose lists are built from this index
+    @EventListener
+    @Order(0)
+    public void onGameChanged(GameChangedEvent event)
+    {
+        if (event.isDelete()) {
+            remove(event.getGameId());
+        } else {
+            GameSnapshot game = event.getAfter();
+            put(game.getId(), game.getTitle(), game.getStatus(), game.getUpdatedAt());
+        }
+    }
+
+    public void put(Long id, String title, GameStatus status, LocalDateTime updatedAt)
+    {
+        lock.writeLock().lock();
+        try {
+            putLocked(id, title, status, updatedAt);
+            if (!ready) {
+                changedWhileLoading.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id)
+    {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.remove(id);
+            if (old != null) {
+                removePostings(id, old.title());
+            }
+            if (!ready) {
+                changedWhileLoading.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * All games whose title contains the term (case-insensitive) and whose status passes the filter.
+     * Returns null while the index is still loading, callers then fall back to the database.
+     */
+    public List<Match> search(String term, Predicate<GameStatus> statusFilter)
+    {
+        if (!ready) {
+            return null;
+        }
+
+        String needle = term.toLowerCase(Locale.ROOT);
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            long[] keys = trigrams(needle);
+            if (keys.length == 0) {
+                // 1-2 characters: no trigram to look up, scan the titles in memory
+                entries.forEach((id, entry) -> addIfMatches(matches, id, entry, needle, statusFilter));
+                return matches;
+            }
+
+            Postings smallest = null;
+            Postings[] lists = new Postings[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lists[i] = postings.get(keys[i]);
+                if (lists[i] == null) {
+                    return matches;
+                }
+                if (smallest == null || lists[i].size < smallest.size) {
+                    smallest = lists[i];
+                }
+            }
+
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                for (Postings list : lists) {
+                    if (list != smallest && !list.contains(id)) {
+                        continue candidates;
+                    }
+                }
+                // trigrams only narrow it down, the substring check is what decides
+                addIfMatches(matches, id, entries.get(id), needle, statusFilter);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addIfMatches(List<Match> matches, Long id, Entry entry, String needle, Predicate<GameStatus> statusFilter)
+    {
+        if (entry != null && statusFilter.test(entry.status()) && entry.title().contains(needle)) {
+            matches.add(new Match(id, entry.status(), entry.updatedAt()));
+        }
+    }
+
+    private void putLocked(Long id, String title, GameStatus status, LocalDateTime updatedAt)
+    {
+        String lowerTitle = title != null ? title.toLowerCase(Locale.ROOT) : "";
+        Entry old = entries.put(id, new Entry(lowerTitle, status, updatedAt));
+
+        if (old != null && old.title().equals(lowerTitle)) {
+            return;
+        }
+        if (old != null) {
+            removePostings(id, old.title());
+        }
+        for (long key : trigrams(lowerTitle)) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(id);
+        }
+    }
+
+    private void removePostings(long id, String lowerTitle)
+    {
+        for (long key : trigrams(lowerTitle)) {
+            Postings list = postings.get(key);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    // Distinct trigrams, three UTF-16 chars packed into one long
+    private static long[] trigrams(String text)
+    {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+
+        long[] keys = new long[text.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(keys).distinct().toArray();
+    }
+
+    // Sorted primitive id set
+    private static final class Postings
+    {
+        private long[] ids = new long[4];
+        private int size = 0;
+
+        boolean contains(long id)
+        {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id)
+        {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(long id)
+        {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
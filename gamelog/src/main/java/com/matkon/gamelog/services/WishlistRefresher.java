@@ -0,0 +1,215 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.RefreshCandidate;
+import com.matkon.gamelog.repos.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the RAWG metadata of upcoming wishlist games current: release dates move upstream long after a game
+ * was added. Wishlist games with a future or no release date are re-fetched in the background, least recently
+ * synced first, in small batches under a request rate and a concurrency cap; only fields that changed are
+ * written. The dashboard then stays accurate without request-time RAWG calls.
+ */
+@Component
+public class WishlistRefresher
+{
+    private static final Logger log = LoggerFactory.getLogger(WishlistRefresher.class);
+
+    private final GameRepository gameRepository;
+    private final GameService gameService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${gamelog.wishlist-refresh.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gamelog.wishlist-refresh.batch-size:20}")
+    private int batchSize;
+
+    // upper bound of RAWG requests per run, the rest waits for the next one
+    @Value("${gamelog.wishlist-refresh.max-per-run:200}")
+    private int maxPerRun;
+
+    @Value("${gamelog.wishlist-refresh.requests-per-second:2}")
+    private double requestsPerSecond;
+
+    @Value("${gamelog.wishlist-refresh.concurrency:2}")
+    private int concurrency;
+
+    // a game synced more recently than this isn't a candidate
+    @Value("${gamelog.wishlist-refresh.min-age:PT24H}")
+    private Duration minAge;
+
+    public WishlistRefresher(GameRepository gameRepository, GameService gameService, ApplicationEventPublisher eventPublisher)
+    {
+        this.gameRepository = gameRepository;
+        this.gameService = gameService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public record RefreshResult(int checked, int changed, int failed) {}
+
+    private record Fetched(RefreshCandidate current, Game upstream, boolean failed) {}
+
+    @Scheduled(fixedDelayString = "${gamelog.wishlist-refresh.interval:PT30M}",
+            initialDelayString = "${gamelog.wishlist-refresh.initial-delay:PT2M}")
+    public void scheduledRefresh()
+    {
+        if (!enabled) {
+            return;
+        }
+        RefreshResult result = refresh();
+        if (result.checked() > 0 || result.failed() > 0) {
+            log.info("Wishlist refresh: {} checked, {} changed, {} failed", result.checked(), result.changed(), result.failed());
+        }
+    }
+
+    public RefreshResult refresh()
+    {
+        LocalDateTime syncedBefore = LocalDateTime.now().minus(minAge);
+        int checked = 0;
+        int changed = 0;
+        int failed = 0;
+
+        while (checked + failed < maxPerRun) {
+            int limit = Math.min(batchSize, maxPerRun - checked - failed);
+            List<RefreshCandidate> candidates = findCandidates(LocalDate.now(), syncedBefore, limit);
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            List<Fetched> fetched = fetchRateLimited(candidates);
+            int batchFailed = (int) fetched.stream().filter(Fetched::failed).count();
+            changed += persist(fetched);
+            checked += fetched.size() - batchFailed;
+            failed += batchFailed;
+
+            // failed games keep their old lastSyncedAt and come first next run; don't keep pushing a struggling RAWG now
+            if (batchFailed > 0) {
+                break;
+            }
+        }
+        return new RefreshResult(checked, changed, failed);
+    }
+
+    // Checked games get a lastSyncedAt past syncedBefore, so the next batch starts where this one ended
+    private List<RefreshCandidate> findCandidates(LocalDate today, LocalDateTime syncedBefore, int limit)
+    {
+        List<RefreshCandidate> candidates = new ArrayList<>(
+                gameRepository.findUnsyncedRefreshCandidates(GameStatus.WISHLIST, today, PageRequest.ofSize(limit)));
+        if (candidates.size() < limit) {
+            candidates.addAll(gameRepository.findStaleRefreshCandidates(
+                    GameStatus.WISHLIST, today, syncedBefore, PageRequest.ofSize(limit - candidates.size())));
+        }
+        return candidates;
+    }
+
+    // delayElements spaces the requests at the configured rate, flatMap caps how many are in flight
+    private List<Fetched> fetchRateLimited(List<RefreshCandidate> candidates)
+    {
+        Duration spacing = Duration.ofNanos((long) (1_000_000_000L / requestsPerSecond));
+
+        return Flux.fromIterable(candidates)
+                .delayElements(spacing)
+                .flatMap(this::fetch, concurrency)
+                .collectList()
+                .block();
+    }
+
+    private Mono<Fetched> fetch(RefreshCandidate current)
+    {
+        return gameService.fetchGame(current.getRawgId())
+                .map(upstream -> new Fetched(current, upstream, false))
+                // gone or unparseable upstream: nothing to take over, but it was checked
+                .defaultIfEmpty(new Fetched(current, null, false))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(new Fetched(current, null, false)))
+                .onErrorResume(e -> {
+                    log.warn("Error refreshing game {}: {}", current.getRawgId(), e.getMessage());
+                    return Mono.just(new Fetched(current, null, true));
+                });
+    }
+
+    // Returns the number of games that changed
+    private int persist(List<Fetched> fetched)
+    {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> unchanged = new ArrayList<>();
+        Map<Long, Map<String, Object>> changes = new LinkedHashMap<>();
+
+        for (Fetched result : fetched) {
+            if (result.failed()) {
+                continue;
+            }
+            Map<String, Object> columns = changedColumns(result.current(), result.upstream());
+            if (columns.isEmpty()) {
+                unchanged.add(result.current().getId());
+            } else {
+                changes.put(result.current().getId(), columns);
+            }
+        }
+
+        if (!unchanged.isEmpty()) {
+            gameRepository.markSynced(unchanged, now);
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        // snapshots are re-read around the write: the candidates may be stale by the time RAWG has answered
+        Map<Long, GameSnapshot> before = new HashMap<>();
+        for (GameSnapshot game : gameRepository.findSnapshotsByIds(changes.keySet())) {
+            before.put(game.getId(), game);
+        }
+        changes.forEach((id, columns) -> gameRepository.updateSyncedColumns(id, columns, now));
+
+        int changed = 0;
+        for (GameSnapshot after : gameRepository.findSnapshotsByIds(changes.keySet())) {
+            GameSnapshot previous = before.get(after.getId());
+            if (previous != null) {
+                eventPublisher.publishEvent(GameChangedEvent.updated(previous, after));
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    // RAWG fields that differ; a missing title or image upstream doesn't wipe ours, a missing release date means TBA
+    private static Map<String, Object> changedColumns(RefreshCandidate current, Game upstream)
+    {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (upstream == null) {
+            return columns;
+        }
+        if (upstream.getTitle() != null && !upstream.getTitle().isBlank() && !upstream.getTitle().equals(current.getTitle())) {
+            columns.put("title", upstream.getTitle());
+        }
+        if (!Objects.equals(upstream.getReleaseDate(), current.getReleaseDate())) {
+            columns.put("release_date", upstream.getReleaseDate());
+        }
+        if (upstream.getImageUrl() != null && !upstream.getImageUrl().equals(current.getImageUrl())) {
+            columns.put("image_url", upstream.getImageUrl());
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,18 @@
+-- Baseline: the games table as Hibernate created it before migrations were introduced.
+-- IF NOT EXISTS so databases that already have it (baselined at version 0) pass through.
+CREATE TABLE IF NOT EXISTS games (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status       VARCHAR(32),
+    rating       DOUBLE PRECISION,
+    notes        VARCHAR(255),
+    platform     VARCHAR(255),
+    favourite    BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    completed_at DATE,
+    rawg_id      BIGINT,
+    title        VARCHAR(255) NOT NULL,
+    release_date DATE,
+    image_url    VARCHAR(255),
+    CONSTRAINT uk_games_rawg_id UNIQUE (rawg_id)
+);
@@ -0,0 +1,7 @@
+-- One index per GameRepository access path (see GameRepositoryQueryPlanTests).
+
+-- findWishlistGames, findLibraryGames: status = ? / status IN (...) ORDER BY updated_at DESC
+CREATE INDEX IF NOT EXISTS idx_games_status_updated_at ON games (status, updated_at);
+
+-- findByStatus, findByStatusAndReleaseDateLessThanEqual, findByStatusAndReleaseDateAfter (dashboard)
+CREATE INDEX IF NOT EXISTS idx_games_status_release_date ON games (status, release_date);
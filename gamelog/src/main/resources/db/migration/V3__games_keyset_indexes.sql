@@ -0,0 +1,8 @@
+-- Keyset paging orders by (updated_at, id) / (release_date, id); carry id in the index so the seek
+-- position is resolved inside the index.
+
+DROP INDEX IF EXISTS idx_games_status_updated_at;
+CREATE INDEX IF NOT EXISTS idx_games_status_updated_at_id ON games (status, updated_at, id);
+
+DROP INDEX IF EXISTS idx_games_status_release_date;
+CREATE INDEX IF NOT EXISTS idx_games_status_release_date_id ON games (status, release_date, id);
@@ -0,0 +1,6 @@
+-- When the RAWG metadata of a game was last checked. NULL = never since it was added; the wishlist refresher
+-- picks never / least recently synced first, (status, last_synced_at, id) serves that order.
+
+ALTER TABLE games ADD COLUMN IF NOT EXISTS last_synced_at TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_games_status_last_synced_at_id ON games (status, last_synced_at, id);
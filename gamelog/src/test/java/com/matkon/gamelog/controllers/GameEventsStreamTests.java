@@ -0,0 +1,64 @@
+package com.matkon.gamelog.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * The change feed is a long-lived response: it must outlive spring.mvc.async.request-timeout (lowered here from
+ * the container's 30 seconds, so the test doesn't take that long), with heartbeats still arriving afterwards.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:events",
+        "rawg.api.url=http://127.0.0.1:9",
+        "rawg.api.key=test",
+        "gamelog.wishlist-refresh.enabled=false",
+        "spring.mvc.async.request-timeout=500ms",
+        "gamelog.events.heartbeat=PT0.1S"
+})
+class GameEventsStreamTests
+{
+    private static final Duration ASYNC_TIMEOUT = Duration.ofMillis(500);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void streamOutlivesTheAsyncRequestTimeout()
+    {
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/games/events"))
+                    .header("Accept", "text/event-stream")
+                    .GET()
+                    .build();
+            HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofLines());
+            assertThat(response.statusCode()).isEqualTo(200);
+
+            try (Stream<String> body = response.body()) {
+                Iterator<String> lines = body.iterator();
+                long until = System.nanoTime() + ASYNC_TIMEOUT.multipliedBy(4).toNanos();
+                int heartbeats = 0;
+                while (System.nanoTime() < until) {
+                    // a timed out response ends here
+                    assertThat(lines.hasNext()).isTrue();
+                    if (lines.next().startsWith(":heartbeat")) {
+                        heartbeats++;
+                    }
+                }
+                assertThat(heartbeats).isGreaterThan(4);
+            }
+        });
+    }
+}
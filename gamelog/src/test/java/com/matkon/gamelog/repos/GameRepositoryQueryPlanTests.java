@@ -0,0 +1,240 @@
+package com.matkon.gamelog.repos;
+
+import com.matkon.gamelog.data.Game;
+import com.matkon.gamelog.data.GameBackupRow;
+import com.matkon.gamelog.data.GameStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Schema comes from the Flyway migrations. Each case calls one GameRepository method, records the statements it
+ * really sent (count queries included) and EXPLAINs them with the same bindings; a table scan fails the case.
+ * ANALYZE_AUTO=0 freezes statistics, so the plan shows whether an index can serve the query rather than how the
+ * random seed happens to be distributed.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplans;ANALYZE_AUTO=0",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatementRecorder.class)
+class GameRepositoryQueryPlanTests
+{
+    private static final int ROWS = 20_000;
+    private static final String[] STATUSES = {"WISHLIST", "BACKLOG", "PLAYING", "COMPLETED", "DROPPED", "ONLINE"};
+
+    private static final String PRIMARY_KEY = "PRIMARY_KEY";
+    private static final String RAWG_ID = "UK_GAMES_RAWG_ID";
+    private static final String ANY_STATUS_INDEX = "IDX_GAMES_STATUS_";
+    private static final String STATUS_UPDATED_AT = "IDX_GAMES_STATUS_UPDATED_AT_ID";
+    private static final String STATUS_RELEASE_DATE = "IDX_GAMES_STATUS_RELEASE_DATE_ID";
+    private static final String STATUS_LAST_SYNCED_AT = "IDX_GAMES_STATUS_LAST_SYNCED_AT_ID";
+    // no index to pick: only the key lookup inside the statement has to avoid a scan
+    private static final String NO_SCAN = "";
+    // reads every row on purpose (statistics reconciliation, export), so a scan is the right plan
+    private static final String WHOLE_TABLE = null;
+
+    private static final LocalDate DAY = LocalDate.of(2010, 1, 1);
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 5, 0, 0);
+    private static final List<Long> IDS = List.of(1L, 2L, 3L, 4L, 5L);
+    private static final Set<GameStatus> LIBRARY = EnumSet.complementOf(EnumSet.of(GameStatus.WISHLIST));
+
+    record Case(String method, String index, Function<GameRepository, ?> call)
+    {
+        @Override
+        public String toString() {return method;}
+    }
+
+    static Stream<Case> cases()
+    {
+        return Stream.of(
+                new Case("findByRawgId", RAWG_ID, repo -> repo.findByRawgId(42L)),
+                new Case("insertIfAbsent", NO_SCAN, repo -> repo.insertIfAbsent(42L, "Game 42", DAY, null, "BACKLOG", TIME)),
+                new Case("findExistingRawgIds", RAWG_ID, repo -> repo.findExistingRawgIds(IDS)),
+                new Case("findTitleRowsAfter", PRIMARY_KEY, repo -> repo.findTitleRowsAfter(1000L, PageRequest.of(0, 100))),
+                new Case("findOwnershipRowsAfter", PRIMARY_KEY, repo -> repo.findOwnershipRowsAfter(1000L, PageRequest.of(0, 100))),
+                new Case("findOwnershipByRawgIds", RAWG_ID, repo -> repo.findOwnershipByRawgIds(IDS)),
+                new Case("findSnapshotsByRawgIds", RAWG_ID, repo -> repo.findSnapshotsByRawgIds(IDS)),
+                new Case("findSnapshotsByIds", PRIMARY_KEY, repo -> repo.findSnapshotsByIds(IDS)),
+                new Case("lockByIds", PRIMARY_KEY, repo -> repo.lockByIds(IDS)),
+                new Case("lockByStatus", ANY_STATUS_INDEX, repo -> repo.lockByStatus(GameStatus.WISHLIST)),
+                new Case("lockByStatusReleasedBetween", STATUS_RELEASE_DATE,
+                        repo -> repo.lockByStatusReleasedBetween(GameStatus.WISHLIST, LocalDate.of(1, 1, 1), DAY)),
+                new Case("updateByIds", PRIMARY_KEY,
+                        repo -> repo.updateByIds(IDS, GameStatus.DROPPED, null, null, TIME)),
+                new Case("updateByStatus", ANY_STATUS_INDEX,
+                        repo -> repo.updateByStatus(GameStatus.WISHLIST, null, "PC", true, TIME)),
+                new Case("updateByStatusReleasedBetween", STATUS_RELEASE_DATE,
+                        repo -> repo.updateByStatusReleasedBetween(GameStatus.WISHLIST, LocalDate.of(1, 1, 1), DAY,
+                                GameStatus.BACKLOG, null, null, TIME)),
+                new Case("deleteByIds", PRIMARY_KEY, repo -> repo.deleteByIds(IDS)),
+                new Case("deleteByStatus", ANY_STATUS_INDEX, repo -> repo.deleteByStatus(GameStatus.DROPPED)),
+                new Case("deleteByStatusReleasedBetween", STATUS_RELEASE_DATE,
+                        repo -> repo.deleteByStatusReleasedBetween(GameStatus.DROPPED, LocalDate.of(1, 1, 1), DAY)),
+                new Case("findUnsyncedRefreshCandidates", STATUS_LAST_SYNCED_AT,
+                        repo -> repo.findUnsyncedRefreshCandidates(GameStatus.WISHLIST, DAY, PageRequest.of(0, 20))),
+                new Case("findStaleRefreshCandidates", STATUS_LAST_SYNCED_AT,
+                        repo -> repo.findStaleRefreshCandidates(GameStatus.WISHLIST, DAY, TIME, PageRequest.of(0, 20))),
+                new Case("markSynced", PRIMARY_KEY, repo -> repo.markSynced(IDS, TIME)),
+                new Case("findById", PRIMARY_KEY, repo -> repo.findById(5000L)),
+                new Case("findImageUrlById", PRIMARY_KEY, repo -> repo.findImageUrlById(5000L)),
+                new Case("findWishlistGames", ANY_STATUS_INDEX,
+                        repo -> repo.findWishlistGames(GameStatus.WISHLIST, null, PageRequest.of(0, 8))),
+                new Case("findLibraryGames", ANY_STATUS_INDEX,
+                        repo -> repo.findLibraryGames(LIBRARY, "game 1", PageRequest.of(0, 8))),
+                new Case("findByStatusesUpdatedBefore", STATUS_UPDATED_AT,
+                        repo -> repo.findByStatusesUpdatedBefore(Set.of(GameStatus.WISHLIST), null, TIME, 5000L,
+                                PageRequest.of(0, 9))),
+                new Case("findByStatusReleasedAfter", STATUS_RELEASE_DATE,
+                        repo -> repo.findByStatusReleasedAfter(GameStatus.WISHLIST, LocalDate.of(1, 1, 1),
+                                LocalDate.of(9999, 12, 31), DAY, 100L, PageRequest.of(0, 11))),
+                new Case("findByStatusReleasedBefore", STATUS_RELEASE_DATE,
+                        repo -> repo.findByStatusReleasedBefore(GameStatus.WISHLIST, LocalDate.of(1, 1, 1),
+                                LocalDate.of(9999, 12, 31), DAY, 100L, PageRequest.of(0, 11))),
+                new Case("findByStatusUnreleasedAfter", STATUS_RELEASE_DATE,
+                        repo -> repo.findByStatusUnreleasedAfter(GameStatus.WISHLIST, 100L, PageRequest.of(0, 11))),
+                new Case("loadLibraryStats", WHOLE_TABLE, GameRepository::loadLibraryStats),
+                new Case("findListItemsByIds", PRIMARY_KEY, repo -> repo.findListItemsByIds(IDS)),
+                new Case("findRowsByStatus", ANY_STATUS_INDEX,
+                        repo -> repo.findRowsByStatus(GameStatus.WISHLIST, PageRequest.of(0, 10, Sort.by("releaseDate")))),
+                new Case("findRowsByStatusAndReleaseDateLessThanEqual", STATUS_RELEASE_DATE,
+                        repo -> repo.findRowsByStatusAndReleaseDateLessThanEqual(GameStatus.WISHLIST, DAY,
+                                PageRequest.of(0, 10, Sort.by("releaseDate")))),
+                new Case("findRowsByStatusAndReleaseDateAfter", STATUS_RELEASE_DATE,
+                        repo -> repo.findRowsByStatusAndReleaseDateAfter(GameStatus.WISHLIST, DAY,
+                                PageRequest.of(0, 10, Sort.by("releaseDate")))),
+                new Case("insertIfAbsentBatch", NO_SCAN, repo -> repo.insertIfAbsentBatch(List.of(game(42L), game(ROWS + 1L)))),
+                new Case("updateSyncedColumns", PRIMARY_KEY,
+                        repo -> repo.updateSyncedColumns(5000L, Map.of("title", "Renamed", "release_date", DAY), TIME)),
+                new Case("forEachBackupRow", WHOLE_TABLE, repo -> {
+                    repo.forEachBackupRow(500, row -> {});
+                    return null;
+                }),
+                new Case("insertBackupRows", NO_SCAN, repo -> repo.insertBackupRows(List.of(backupRow(42L), backupRow(ROWS + 1L))))
+        );
+    }
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed()
+    {
+        LocalDate firstRelease = LocalDate.of(2000, 1, 1);
+        LocalDateTime firstUpdate = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            rows.add(new Object[]{
+                    (long) i,
+                    "Game " + i,
+                    STATUSES[i % STATUSES.length],
+                    i % 10 == 0 ? null : Date.valueOf(firstRelease.plusDays(i % 10_000)),
+                    Timestamp.valueOf(firstUpdate.plusMinutes(i))
+            });
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO games (rawg_id, title, status, release_date, favourite, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, FALSE, CURRENT_TIMESTAMP, ?)",
+                rows);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("cases")
+    void statementsUseAnIndex(Case queryCase)
+    {
+        List<StatementRecorder.Recorded> statements = statementRecorder.record(() -> queryCase.call().apply(gameRepository));
+        assertThat(statements).as("statements sent by %s", queryCase.method()).isNotEmpty();
+
+        for (StatementRecorder.Recorded statement : statements) {
+            String plan = explain(statement);
+            if (queryCase.index() == WHOLE_TABLE) {
+                continue;
+            }
+            assertThat(plan).as(statement.sql()).doesNotContainIgnoringCase("tableScan");
+            assertThat(plan.toUpperCase()).as(statement.sql()).contains(queryCase.index());
+        }
+    }
+
+    // a new repository method has to come with its case above
+    @Test
+    void everyRepositoryMethodHasACase()
+    {
+        Set<String> declared = Stream.of(GameRepository.class, GameRepositoryCustom.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+
+        assertThat(cases().map(Case::method)).containsExactlyInAnyOrderElementsOf(declared);
+    }
+
+    private String explain(StatementRecorder.Recorded statement)
+    {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                statement.bind(explain);
+                try (ResultSet plan = explain.executeQuery()) {
+                    StringBuilder text = new StringBuilder();
+                    while (plan.next()) {
+                        text.append(plan.getString(1)).append('\n');
+                    }
+                    return text.toString();
+                }
+            }
+        });
+    }
+
+    private static Game game(Long rawgId)
+    {
+        Game game = new Game("Game " + rawgId);
+        game.setRawgId(rawgId);
+        game.setStatus(GameStatus.BACKLOG);
+        return game;
+    }
+
+    private static GameBackupRow backupRow(Long rawgId)
+    {
+        GameBackupRow row = new GameBackupRow();
+        row.setRawgId(rawgId);
+        row.setTitle("Game " + rawgId);
+        row.setStatus(GameStatus.BACKLOG);
+        return row;
+    }
+}
@@ -0,0 +1,126 @@
+package com.matkon.gamelog.repos;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the DataSource so every statement prepared while {@link #record} runs is kept with its parameter
+ * bindings, whether Hibernate or JdbcTemplate issued it. For batches only the first row's bindings are kept.
+ */
+class StatementRecorder implements BeanPostProcessor
+{
+    record Binding(Method setter, Object[] args) {}
+
+    record Recorded(String sql, List<Binding> bindings)
+    {
+        void bind(PreparedStatement statement) throws SQLException
+        {
+            for (Binding binding : bindings) {
+                try {
+                    binding.setter().invoke(statement, binding.args());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+
+    // null while not recording; only ever touched by the test thread
+    private List<Recorded> recording;
+
+    List<Recorded> record(Supplier<?> call)
+    {
+        List<Recorded> recorded = new ArrayList<>();
+        recording = recorded;
+        try {
+            call.get();
+        } finally {
+            recording = null;
+        }
+        return recorded;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName)
+    {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection connection ? proxy(Connection.class, connection, this::onConnection) : result);
+    }
+
+    private Object onConnection(Method method, Object[] args, Object result)
+    {
+        if (recording == null || !method.getName().equals("prepareStatement")) {
+            return result;
+        }
+        Recorded recorded = new Recorded((String) args[0], new ArrayList<>());
+        recording.add(recorded);
+        return proxy(PreparedStatement.class, (PreparedStatement) result, new StatementListener(recorded));
+    }
+
+    private static final class StatementListener implements ResultHandler
+    {
+        private final Recorded recorded;
+        private boolean firstRowDone;
+
+        StatementListener(Recorded recorded)
+        {
+            this.recorded = recorded;
+        }
+
+        @Override
+        public Object handle(Method method, Object[] args, Object result)
+        {
+            if (method.getName().equals("addBatch")) {
+                firstRowDone = true;
+            } else if (!firstRowDone && method.getName().startsWith("set")
+                    && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                recorded.bindings().add(new Binding(method, args.clone()));
+            }
+            return result;
+        }
+    }
+
+    // Called after the target method returned, with its result
+    private interface ResultHandler
+    {
+        Object handle(Method method, Object[] args, Object result);
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultHandler handler)
+    {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            // identity semantics, the proxy is used as a transaction resource key
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return handler.handle(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+}
@@ -0,0 +1,149 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameBackupRow;
+import com.matkon.gamelog.data.GameStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GameCsvTests
+{
+    @Test
+    void roundTripsEveryColumn() throws IOException
+    {
+        GameBackupRow full = row(3328L, "The Witcher 3: Wild Hunt", "Played \"Blood and Wine\" last, on PC");
+        full.setStatus(GameStatus.COMPLETED);
+        full.setRating(4.5);
+        full.setPlatform("PC");
+        full.setFavourite(true);
+        full.setCompletedAt(LocalDate.of(2024, 3, 1));
+        full.setReleaseDate(LocalDate.of(2015, 5, 18));
+        full.setImageUrl("https://media.rawg.io/media/games/618/witcher3.jpg");
+        full.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        full.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 20, 30, 15));
+        full.setLastSyncedAt(LocalDateTime.of(2024, 3, 2, 8, 0));
+        GameBackupRow sparse = row(1L, "Hades", null);
+        GameBackupRow emptyNotes = row(2L, "Celeste", "");
+
+        List<GameBackupRow> read = read(write(full, sparse, emptyNotes));
+
+        assertThat(read).usingRecursiveFieldByFieldElementComparator().containsExactly(full, sparse, emptyNotes);
+        assertThat(read.get(1).getNotes()).isNull();
+        assertThat(read.get(2).getNotes()).isEmpty();
+    }
+
+    @Test
+    void quotedFieldsKeepLineBreaks() throws IOException
+    {
+        GameBackupRow lf = row(1L, "Hades", "first run\nsecond run, \"with\" the bow");
+        GameBackupRow crlf = row(2L, "Celeste", "chapter 7\r\nB-sides\r\n");
+
+        assertThat(read(write(lf, crlf))).usingRecursiveFieldByFieldElementComparator().containsExactly(lf, crlf);
+    }
+
+    @Test
+    void readsCrlfLineEndings() throws IOException
+    {
+        String csv = "rawgId,title,notes\r\n1,Hades,\"a\r\nb\"\r\n\r\n2,\"Celeste, \"\"Farewell\"\"\",\r\n";
+
+        List<GameBackupRow> read = read(csv);
+
+        assertThat(read).extracting(GameBackupRow::getRawgId, GameBackupRow::getTitle, GameBackupRow::getNotes)
+                .containsExactly(
+                        tuple(1L, "Hades", "a\r\nb"),
+                        tuple(2L, "Celeste, \"Farewell\"", null));
+    }
+
+    @Test
+    void inputEndingInsideQuotesIsRejected() throws IOException
+    {
+        String csv = "rawgId,title,notes\n1,Hades,done\n2,Celeste,\"never\nclosed\n";
+        GameCsv.Reader reader = new GameCsv.Reader(new BufferedReader(new StringReader(csv)));
+
+        assertThat(reader.next().getTitle()).isEqualTo("Hades");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 3");
+    }
+
+    @Test
+    void longUnclosedQuoteIsRejectedWithoutBufferingTheRest() throws IOException
+    {
+        EndlessField input = new EndlessField("rawgId,title,notes\n1,Hades,done\n2,Celeste,\"never closed\n");
+        GameCsv.Reader reader = new GameCsv.Reader(new BufferedReader(input));
+
+        assertThat(reader.next().getTitle()).isEqualTo("Hades");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 3")
+                .hasMessageContaining("longer than " + GameCsv.MAX_RECORD_LENGTH);
+        // the cap plus what BufferedReader reads ahead
+        assertThat(input.served).isLessThan(GameCsv.MAX_RECORD_LENGTH + 64 * 1024);
+    }
+
+    private static GameBackupRow row(Long rawgId, String title, String notes)
+    {
+        GameBackupRow row = new GameBackupRow();
+        row.setRawgId(rawgId);
+        row.setTitle(title);
+        row.setNotes(notes);
+        return row;
+    }
+
+    private static String write(GameBackupRow... rows) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        GameCsv.writeHeader(out);
+        for (GameBackupRow row : rows) {
+            GameCsv.writeRow(out, row);
+        }
+        return out.toString();
+    }
+
+    private static List<GameBackupRow> read(String csv) throws IOException
+    {
+        GameCsv.Reader reader = new GameCsv.Reader(new BufferedReader(new StringReader(csv)));
+        List<GameBackupRow> rows = new ArrayList<>();
+        GameBackupRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // the given text, then 'x' forever
+    private static final class EndlessField extends Reader
+    {
+        private final String head;
+        private long served;
+
+        EndlessField(String head)
+        {
+            this.head = head;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length)
+        {
+            for (int i = 0; i < length; i++, served++) {
+                buffer[offset + i] = served < head.length() ? head.charAt((int) served) : 'x';
+            }
+            return length;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
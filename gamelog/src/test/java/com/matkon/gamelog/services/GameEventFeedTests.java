@@ -0,0 +1,89 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameFeedEvent;
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameEventFeedTests
+{
+    private static final int REPLAY_SIZE = 4;
+
+    private final GameEventFeed feed = new GameEventFeed(REPLAY_SIZE, 8, new SimpleMeterRegistry());
+
+    @Test
+    void reconnectReplaysWhatWasMissed()
+    {
+        List<ServerSentEvent<GameFeedEvent>> received = new ArrayList<>();
+        Disposable connection = feed.subscribe(null).subscribe(received::add);
+        insert(1L);
+        connection.dispose();
+        insert(2L);
+        insert(3L);
+
+        StepVerifier.create(feed.subscribe(received.get(0).id()))
+                .assertNext(event -> assertThat(event.data().getId()).isEqualTo(2L))
+                .assertNext(event -> assertThat(event.data().getId()).isEqualTo(3L))
+                .then(() -> insert(4L))
+                .assertNext(event -> assertThat(event.data().getId()).isEqualTo(4L))
+                .thenCancel()
+                .verify();
+        assertThat(feed.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void idOlderThanTheBufferGetsReset()
+    {
+        List<ServerSentEvent<GameFeedEvent>> received = new ArrayList<>();
+        Disposable connection = feed.subscribe(null).subscribe(received::add);
+        insert(1L);
+        connection.dispose();
+        for (long id = 2; id <= REPLAY_SIZE + 2; id++) {
+            insert(id);
+        }
+
+        StepVerifier.create(feed.subscribe(received.get(0).id()))
+                .assertNext(event -> assertThat(event.event()).isEqualTo("reset"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void idOfAnotherRunGetsReset()
+    {
+        StepVerifier.create(feed.subscribe("0123abcd-42"))
+                .assertNext(event -> assertThat(event.data().getType()).isEqualTo(GameFeedEvent.Type.RESET))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWithoutBlockingWrites()
+    {
+        StepVerifier.create(feed.subscribe(null), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 100; id++) {
+                        insert(id);
+                    }
+                    assertThat(feed.getSubscriberCount()).isZero();
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(event -> true)
+                .verifyComplete();
+    }
+
+    private void insert(long id)
+    {
+        feed.onGameChanged(GameChangedEvent.inserted(
+                new GameSnapshot(id, id * 10, "Game " + id, GameStatus.BACKLOG, null, false, null, null, null)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.matkon.gamelog.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTests
+{
+    @Test
+    void roundTrips()
+    {
+        KeysetCursor cursor = new KeysetCursor(1, "2024-03-01T20:30:15", 42L);
+
+        assertThat(KeysetCursor.decode(cursor.encode(), 2)).isEqualTo(cursor);
+        assertThat(KeysetCursor.decode(new KeysetCursor(0, "", 7L).encode(), 1)).isEqualTo(new KeysetCursor(0, "", 7L));
+    }
+
+    @Test
+    void blankIsTheFirstPage()
+    {
+        assertThat(KeysetCursor.decode(null, 2)).isNull();
+        assertThat(KeysetCursor.decode(" ", 2)).isNull();
+    }
+
+    @Test
+    void notBase64IsRejected()
+    {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!", 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "v1|0|2024-01-01", "v1|0|2024-01-01|1|2", "v2|0|2024-01-01|1",
+            "v1|x|2024-01-01|1", "v1|0|2024-01-01|x", "v1|99999999999|2024-01-01|1",
+            "v1|-1|2024-01-01|1", "v1|2|2024-01-01|1", "v1|0|2024-01-01|-5"
+    })
+    void malformedOrOutOfRangeIsRejected(String raw)
+    {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+    }
+}
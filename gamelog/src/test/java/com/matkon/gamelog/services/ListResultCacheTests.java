@@ -0,0 +1,126 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListResultCacheTests
+{
+    private static final Set<GameStatus> WISHLIST = EnumSet.of(GameStatus.WISHLIST);
+    private static final Set<GameStatus> LIBRARY = EnumSet.complementOf(EnumSet.of(GameStatus.WISHLIST));
+
+    private final ListResultCache cache = new ListResultCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Test
+    void repeatedCallsAreServedFromMemory()
+    {
+        assertThat(wishlistPage(0)).isEqualTo(1);
+        assertThat(wishlistPage(0)).isEqualTo(1);
+        assertThat(wishlistPage(1)).isEqualTo(2);
+    }
+
+    @Test
+    void libraryWriteLeavesWishlistCached()
+    {
+        wishlistPage(0);
+        libraryPage(0);
+
+        cache.onGameChanged(GameChangedEvent.updated(game(GameStatus.BACKLOG), game(GameStatus.PLAYING)));
+
+        assertThat(wishlistPage(0)).isEqualTo(1);
+        assertThat(libraryPage(0)).isEqualTo(3);
+    }
+
+    @Test
+    void statusMoveInvalidatesBothSides()
+    {
+        wishlistPage(0);
+        libraryPage(0);
+
+        cache.onGameChanged(GameChangedEvent.updated(game(GameStatus.WISHLIST), game(GameStatus.BACKLOG)));
+
+        assertThat(wishlistPage(0)).isEqualTo(3);
+        assertThat(libraryPage(0)).isEqualTo(4);
+    }
+
+    @Test
+    void writeDuringQueryIsNotServedAfterwards()
+    {
+        cache.get("wishlist", WISHLIST, () -> {
+            cache.onGameChanged(GameChangedEvent.inserted(game(GameStatus.WISHLIST)));
+            return queries.incrementAndGet();
+        }, 0);
+
+        assertThat(wishlistPage(0)).isEqualTo(2);
+    }
+
+    @Test
+    void slowQueryDoesNotBlockOtherKeys() throws Exception
+    {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> slow = executor.submit(() -> cache.get("wishlist", WISHLIST, () -> {
+                slowStarted.countDown();
+                await(releaseSlow);
+                return queries.incrementAndGet();
+            }, 0));
+            assertThat(slowStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // a whole range of other keys, so some share a map bin with the slow one
+            CompletableFuture<Void> others = CompletableFuture.runAsync(() -> {
+                for (int page = 1; page <= 64; page++) {
+                    wishlistPage(page);
+                }
+            });
+            others.get(5, TimeUnit.SECONDS);
+
+            releaseSlow.countDown();
+            assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo(65);
+        } finally {
+            releaseSlow.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // return the query number, so a hit returns the number of the query that filled it
+    private int wishlistPage(int page)
+    {
+        return cache.get("wishlist", WISHLIST, queries::incrementAndGet, page);
+    }
+
+    private int libraryPage(int page)
+    {
+        return cache.get("library", LIBRARY, queries::incrementAndGet, page, LIBRARY);
+    }
+
+    private static GameSnapshot game(GameStatus status)
+    {
+        return new GameSnapshot(1L, 10L, "Game", status, null, false, null, null, null);
+    }
+}
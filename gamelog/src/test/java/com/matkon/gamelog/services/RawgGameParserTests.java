@@ -0,0 +1,114 @@
+package com.matkon.gamelog.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matkon.gamelog.data.Game;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Streaming parser must produce exactly what the old JsonNode-based parsing produced
+class RawgGameParserTests
+{
+    private final RawgGameParser parser = new RawgGameParser();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void searchResultsMatchTreeParsing() throws IOException
+    {
+        List<Game> streamed;
+        try (InputStream in = resource("search-response.json")) {
+            streamed = parser.parseGames(in);
+        }
+
+        List<Game> expected = new ArrayList<>();
+        for (JsonNode gameNode : readTree("search-response.json").get("results")) {
+            expected.add(treeGame(gameNode));
+        }
+
+        assertThat(streamed).hasSize(3);
+        assertSameGames(streamed, expected);
+    }
+
+    @Test
+    void gameDetailMatchesTreeParsing() throws IOException
+    {
+        Game streamed;
+        try (InputStream in = resource("game-detail.json")) {
+            streamed = parser.parseGame(in);
+        }
+
+        Game expected = treeGame(readTree("game-detail.json"));
+
+        assertSameGames(List.of(streamed), List.of(expected));
+        assertThat(streamed.getTitle()).isEqualTo("The Witcher 3: Wild Hunt");
+        assertThat(streamed.getReleaseDate()).isEqualTo(LocalDate.of(2015, 5, 18));
+    }
+
+    @Test
+    void bodyWithoutResultsGivesEmptyList() throws IOException
+    {
+        InputStream in = new ByteArrayInputStream("{\"detail\": \"Not found.\"}".getBytes(StandardCharsets.UTF_8));
+        assertThat(parser.parseGames(in)).isEmpty();
+    }
+
+    private static void assertSameGames(List<Game> actual, List<Game> expected)
+    {
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).getRawgId()).isEqualTo(expected.get(i).getRawgId());
+            assertThat(actual.get(i).getTitle()).isEqualTo(expected.get(i).getTitle());
+            assertThat(actual.get(i).getReleaseDate()).isEqualTo(expected.get(i).getReleaseDate());
+            assertThat(actual.get(i).getImageUrl()).isEqualTo(expected.get(i).getImageUrl());
+        }
+    }
+
+    private JsonNode readTree(String name) throws IOException
+    {
+        try (InputStream in = resource(name)) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    private static InputStream resource(String name)
+    {
+        return RawgGameParserTests.class.getResourceAsStream("/rawg/" + name);
+    }
+
+    // Reference: the tree-based mapping GameService used before switching to RawgGameParser
+    private static Game treeGame(JsonNode gameNode)
+    {
+        Game game = new Game();
+
+        if (gameNode.has("id")) {
+            game.setRawgId(gameNode.get("id").asLong());
+        }
+
+        if (gameNode.has("name")) {
+            game.setTitle(gameNode.get("name").asText());
+        }
+
+        if (gameNode.has("released") && !gameNode.get("released").isNull()) {
+            try {
+                game.setReleaseDate(LocalDate.parse(gameNode.get("released").asText(), DateTimeFormatter.ISO_LOCAL_DATE));
+            } catch (Exception e) {
+                // left null, same as GameService
+            }
+        }
+
+        if (gameNode.has("background_image") && !gameNode.get("background_image").isNull()) {
+            game.setImageUrl(gameNode.get("background_image").asText());
+        }
+
+        return game;
+    }
+}
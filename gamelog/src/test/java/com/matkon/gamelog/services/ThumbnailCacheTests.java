@@ -0,0 +1,337 @@
+package com.matkon.gamelog.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs against a local stand-in for the RAWG image host
+class ThumbnailCacheTests
+{
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 225;
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+    private static final Duration GRACE = Duration.ofMillis(300);
+
+    @TempDir
+    Path dir;
+
+    private HttpServer imageServer;
+    private final Map<String, byte[]> images = new ConcurrentHashMap<>();
+    private final Map<String, String> redirects = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void startImageServer() throws IOException
+    {
+        imageServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        imageServer.createContext("/", exchange -> {
+            try {
+                String path = exchange.getRequestURI().getPath();
+                hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                String location = redirects.get(path);
+                if (location != null) {
+                    exchange.getResponseHeaders().set("Location", location);
+                    exchange.sendResponseHeaders(302, -1);
+                    return;
+                }
+                byte[] body = images.get(path);
+                if (body == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "image/png");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        imageServer.start();
+
+        images.put("/a.png", png(1920, 1080, 1));
+        images.put("/b.png", png(1280, 1024, 2));
+        images.put("/c.png", png(600, 900, 3));
+    }
+
+    @AfterEach
+    void stopImageServer()
+    {
+        imageServer.stop(0);
+    }
+
+    @Test
+    void generatesFixedSizeThumbnailOnce() throws IOException
+    {
+        ThumbnailCache cache = cache(dir, UNBOUNDED);
+
+        ThumbnailCache.Thumbnail first = cache.get(url("/a.png"));
+        ThumbnailCache.Thumbnail second = cache.get(url("/a.png"));
+
+        assertThat(second.file()).isEqualTo(first.file());
+        assertThat(hits.get("/a.png")).hasValue(1);
+        assertThat(Files.size(first.file())).isEqualTo(first.size());
+
+        BufferedImage thumbnail = ImageIO.read(first.file().toFile());
+        assertThat(thumbnail.getWidth()).isEqualTo(WIDTH);
+        assertThat(thumbnail.getHeight()).isEqualTo(HEIGHT);
+    }
+
+    @Test
+    void concurrentRequestsShareOneDownload() throws Exception
+    {
+        ThumbnailCache cache = cache(dir, UNBOUNDED);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ThumbnailCache.Thumbnail>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(url("/b.png"))));
+            }
+            for (Future<ThumbnailCache.Thumbnail> result : results) {
+                assertThat(result.get().file()).exists();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(hits.get("/b.png")).hasValue(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyServedFirst() throws IOException
+    {
+        long[] sizes = measure();
+        long a = sizes[0];
+        long b = sizes[1];
+        long c = sizes[2];
+
+        ThumbnailCache cache = cache(dir.resolve("bounded"), a + b + c - 1);
+        ThumbnailCache.Thumbnail thumbA = cache.get(url("/a.png"));
+        ThumbnailCache.Thumbnail thumbB = cache.get(url("/b.png"));
+        cache.get(url("/a.png"));
+        cache.get(url("/c.png"));
+
+        assertThat(thumbB.file()).doesNotExist();
+        assertThat(thumbA.file()).exists();
+        assertThat(cache.getTotalBytes()).isEqualTo(a + c);
+        // the ref of the evicted thumbnail went with it
+        try (Stream<Path> refs = Files.list(dir.resolve("bounded").resolve("refs"))) {
+            assertThat(refs.count()).isEqualTo(2);
+        }
+
+        cache.get(url("/b.png"));
+        assertThat(hits.get("/b.png")).hasValue(2);
+    }
+
+    @Test
+    void evictedFileOutlivesTheGrace() throws IOException
+    {
+        long[] sizes = measure();
+        ThumbnailCache cache = cache(dir.resolve("bounded"), sizes[0] + sizes[1] + sizes[2] - 1, GRACE);
+        cache.get(url("/a.png"));
+        ThumbnailCache.Thumbnail thumbB = cache.get(url("/b.png"));
+        cache.get(url("/a.png"));
+        cache.get(url("/c.png"));
+
+        // out of the cache, but a response that already has thumbB can still open it
+        assertThat(cache.getTotalBytes()).isEqualTo(sizes[0] + sizes[2]);
+        assertThat(thumbB.file()).exists();
+
+        sleep(GRACE.multipliedBy(2));
+        images.put("/d.png", png(800, 600, 4));
+        cache.get(url("/d.png"));
+
+        assertThat(thumbB.file()).doesNotExist();
+    }
+
+    @Test
+    void thumbnailGeneratedAgainWithinTheGraceIsKept() throws IOException
+    {
+        long[] sizes = measure();
+        ThumbnailCache cache = cache(dir.resolve("bounded"), sizes[0] + sizes[1] + sizes[2] - 1, GRACE);
+        cache.get(url("/a.png"));
+        cache.get(url("/b.png"));
+        cache.get(url("/a.png"));
+        cache.get(url("/c.png"));
+        ThumbnailCache.Thumbnail again = cache.get(url("/b.png"));
+
+        sleep(GRACE.multipliedBy(2));
+        images.put("/d.png", png(800, 600, 4));
+        cache.get(url("/d.png"));
+
+        assertThat(hits.get("/b.png")).hasValue(2);
+        assertThat(again.file()).exists();
+    }
+
+    @Test
+    void reusesThumbnailsAfterRestart() throws IOException
+    {
+        ThumbnailCache.Thumbnail before = cache(dir, UNBOUNDED).get(url("/c.png"));
+
+        ThumbnailCache restarted = cache(dir, UNBOUNDED);
+        ThumbnailCache.Thumbnail after = restarted.get(url("/c.png"));
+
+        assertThat(after.hash()).isEqualTo(before.hash());
+        assertThat(restarted.getDownloads()).isZero();
+        assertThat(restarted.getTotalBytes()).isEqualTo(before.size());
+    }
+
+    @Test
+    void failedDownloadIsReported() throws IOException
+    {
+        ThumbnailCache cache = cache(dir, UNBOUNDED);
+
+        assertThatThrownBy(() -> cache.get(url("/missing.png")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("404");
+        assertThat(cache.getTotalBytes()).isZero();
+    }
+
+    @Test
+    void followsRedirects() throws IOException
+    {
+        redirects.put("/moved.png", "/a.png");
+        ThumbnailCache cache = cache(dir, UNBOUNDED);
+
+        assertThat(cache.get(url("/moved.png")).file()).exists();
+        assertThat(hits.get("/a.png")).hasValue(1);
+    }
+
+    @Test
+    void privateHostsAreNotFetched() throws IOException
+    {
+        ThumbnailCache cache = new ThumbnailCache(dir, WIDTH, HEIGHT, UNBOUNDED, HttpClient.newHttpClient(), false,
+                Duration.ZERO, 2);
+
+        assertThatThrownBy(() -> cache.get(url("/a.png")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not a public address");
+        assertThatThrownBy(() -> cache.get("file:///etc/passwd"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("http(s)");
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    void oversizedImageIsRejectedBeforeDecoding() throws IOException
+    {
+        images.put("/huge.png", pngHeader(10_000, 10_000));
+        ThumbnailCache cache = cache(dir, UNBOUNDED);
+
+        assertThatThrownBy(() -> cache.get(url("/huge.png")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("10000x10000");
+        assertThat(cache.getTotalBytes()).isZero();
+    }
+
+    // the stand-in image host is on loopback; evicted files go at once unless a grace is given
+    private ThumbnailCache cache(Path cacheDir, long maxBytes) throws IOException
+    {
+        return cache(cacheDir, maxBytes, Duration.ZERO);
+    }
+
+    private ThumbnailCache cache(Path cacheDir, long maxBytes, Duration evictionGrace) throws IOException
+    {
+        return new ThumbnailCache(cacheDir, WIDTH, HEIGHT, maxBytes, HttpClient.newHttpClient(), true, evictionGrace, 2);
+    }
+
+    // thumbnail sizes of a, b and c: same images in a separate cache, so the same sizes
+    private long[] measure() throws IOException
+    {
+        ThumbnailCache measure = cache(dir.resolve("measure"), UNBOUNDED);
+        long[] sizes = {
+                measure.get(url("/a.png")).size(),
+                measure.get(url("/b.png")).size(),
+                measure.get(url("/c.png")).size()
+        };
+        hits.clear();
+        return sizes;
+    }
+
+    private static void sleep(Duration duration)
+    {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String url(String path)
+    {
+        return "http://" + imageServer.getAddress().getHostString() + ":" + imageServer.getAddress().getPort() + path;
+    }
+
+    // PNG signature and IHDR only: the declared size can be read, there are no pixels behind it
+    private static byte[] pngHeader(int width, int height)
+    {
+        ByteBuffer ihdr = ByteBuffer.allocate(17)
+                .put("IHDR".getBytes(StandardCharsets.US_ASCII))
+                .putInt(width)
+                .putInt(height)
+                .put(new byte[]{8, 2, 0, 0, 0});
+        CRC32 crc = new CRC32();
+        crc.update(ihdr.array());
+        return ByteBuffer.allocate(8 + 4 + 17 + 4)
+                .put(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'})
+                .putInt(13)
+                .put(ihdr.array())
+                .putInt((int) crc.getValue())
+                .array();
+    }
+
+    // random 40px blocks: coarse enough to survive the downscale, so every image gives a different thumbnail
+    private static byte[] png(int width, int height, long seed) throws IOException
+    {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            for (int y = 0; y < height; y += 40) {
+                for (int x = 0; x < width; x += 40) {
+                    g.setColor(new Color(random.nextInt(0x1000000)));
+                    g.fillRect(x, y, 40, 40);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,142 @@
+package com.matkon.gamelog.services;
+
+import com.matkon.gamelog.data.GameSnapshot;
+import com.matkon.gamelog.data.GameStatus;
+import com.matkon.gamelog.data.GameTitleRow;
+import com.matkon.gamelog.repos.GameRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TitleTrigramIndexTests
+{
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final GameRepository gameRepository = mock(GameRepository.class);
+    private final TitleTrigramIndex index = new TitleTrigramIndex(gameRepository);
+
+    @Test
+    void notReadyUntilBuilt()
+    {
+        assertThat(index.search("witcher", status -> true)).isNull();
+
+        build();
+
+        assertThat(index.search("witcher", status -> true)).isEmpty();
+    }
+
+    @Test
+    void matchesSubstringsIgnoringCase()
+    {
+        build(row(1L, "The Witcher 3: Wild Hunt", GameStatus.BACKLOG),
+                row(2L, "The Witness", GameStatus.PLAYING),
+                row(3L, "Hades", GameStatus.COMPLETED));
+
+        assertThat(ids("WIT")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids("cher 3: w")).containsExactly(1L);
+        // shorter than a trigram: scanned instead
+        assertThat(ids("ha")).containsExactlyInAnyOrder(3L);
+        assertThat(ids("witches")).isEmpty();
+        assertThat(index.search("the", status -> status == GameStatus.PLAYING))
+                .extracting(TitleTrigramIndex.Match::id)
+                .containsExactly(2L);
+    }
+
+    @Test
+    void matchesRankLikeTheListQueries()
+    {
+        build(row(1L, "Portal", GameStatus.BACKLOG, T0),
+                row(2L, "Portal 2", GameStatus.COMPLETED, T0.plusHours(2)),
+                row(3L, "Portal Stories", GameStatus.PLAYING, T0),
+                row(4L, "Portal Knights", GameStatus.BACKLOG, T0.plusHours(2)));
+
+        List<TitleTrigramIndex.Match> matches = index.search("portal", status -> true);
+
+        // PLAYING first, then most recently updated, then highest id
+        assertThat(matches.stream().sorted(GameService.LIBRARY_ORDER).map(TitleTrigramIndex.Match::id))
+                .containsExactly(3L, 4L, 2L, 1L);
+        assertThat(matches.stream().sorted(GameService.WISHLIST_ORDER).map(TitleTrigramIndex.Match::id))
+                .containsExactly(4L, 2L, 3L, 1L);
+    }
+
+    @Test
+    void updatesReplaceTitleAndStatus()
+    {
+        build(row(1L, "Hades", GameStatus.BACKLOG));
+
+        index.onGameChanged(GameChangedEvent.updated(
+                snapshot(1L, "Hades", GameStatus.BACKLOG), snapshot(1L, "Celeste", GameStatus.PLAYING)));
+
+        assertThat(ids("hades")).isEmpty();
+        assertThat(index.search("celes", status -> true))
+                .extracting(TitleTrigramIndex.Match::status)
+                .containsExactly(GameStatus.PLAYING);
+    }
+
+    @Test
+    void deletesAreRemoved()
+    {
+        build(row(1L, "Hades", GameStatus.BACKLOG), row(2L, "Hades II", GameStatus.WISHLIST));
+
+        index.onGameChanged(GameChangedEvent.deleted(snapshot(2L, "Hades II", GameStatus.WISHLIST)));
+
+        assertThat(ids("hades")).containsExactly(1L);
+        assertThat(ids("des ii")).isEmpty();
+    }
+
+    @Test
+    void deleteDuringLoadIsNotUndoneByTheLoad()
+    {
+        // the batch query read game 2 just before it was deleted; the delete event arrives before the rows are applied
+        when(gameRepository.findTitleRowsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            index.onGameChanged(GameChangedEvent.deleted(snapshot(2L, "Hades II", GameStatus.WISHLIST)));
+            index.onGameChanged(GameChangedEvent.updated(
+                    snapshot(1L, "Hades", GameStatus.BACKLOG), snapshot(1L, "Hades", GameStatus.PLAYING)));
+            return List.of(row(1L, "Hades", GameStatus.BACKLOG), row(2L, "Hades II", GameStatus.WISHLIST));
+        });
+        ReflectionTestUtils.setField(index, "loadBatchSize", 10);
+
+        index.build();
+
+        assertThat(index.search("hades", status -> true))
+                .extracting(TitleTrigramIndex.Match::id, TitleTrigramIndex.Match::status)
+                .containsExactly(tuple(1L, GameStatus.PLAYING));
+    }
+
+    private void build(GameTitleRow... rows)
+    {
+        when(gameRepository.findTitleRowsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(rows));
+        ReflectionTestUtils.setField(index, "loadBatchSize", rows.length + 1);
+        index.build();
+    }
+
+    private List<Long> ids(String term)
+    {
+        return index.search(term, status -> true).stream().map(TitleTrigramIndex.Match::id).toList();
+    }
+
+    private static GameTitleRow row(Long id, String title, GameStatus status)
+    {
+        return row(id, title, status, T0);
+    }
+
+    private static GameTitleRow row(Long id, String title, GameStatus status, LocalDateTime updatedAt)
+    {
+        return new GameTitleRow(id, title, status, updatedAt);
+    }
+
+    private static GameSnapshot snapshot(Long id, String title, GameStatus status)
+    {
+        return new GameSnapshot(id, id * 10, title, status, null, false, null, null, T0.plusHours(1));
+    }
+}